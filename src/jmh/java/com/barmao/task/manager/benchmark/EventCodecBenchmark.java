@@ -0,0 +1,115 @@
+package com.barmao.task.manager.benchmark;
+
+import com.barmao.task.manager.config.JmsConfig;
+import com.barmao.task.manager.event.TaskEventMessageConverter;
+import com.barmao.task.manager.event.TaskEvents;
+import com.barmao.task.manager.model.Task;
+import jakarta.jms.BytesMessage;
+import jakarta.jms.Connection;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.Session;
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The JSON converter against the binary task event converter, over a mix of
+ * created, started and completed events. Body bytes per message are checked
+ * by TaskEventBinaryCodecTests. Messages are built on an in-VM ActiveMQ
+ * session and never sent.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class EventCodecBenchmark {
+
+    private static final String TOPIC = "task-events";
+    private static final int EVENTS = 300;
+
+    @Param({"JSON", "BINARY"})
+    public String format;
+
+    private TaskEventMessageConverter converter;
+    private Connection connection;
+    private Session session;
+    private final List<TaskEvents.TaskEvent> events = new ArrayList<>(EVENTS);
+    private final List<Message> messages = new ArrayList<>(EVENTS);
+    private int next;
+
+    @Setup
+    public void setUp() throws JMSException {
+        converter = new TaskEventMessageConverter(new JmsConfig().jacksonJmsMessageConverter(),
+                "BINARY".equals(format) ? Set.of(TOPIC) : Set.of());
+        connection = new ActiveMQConnectionFactory(
+                "vm://codec-benchmark?broker.persistent=false&broker.useJmx=false").createConnection();
+        session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+
+        for (int i = 0; i < EVENTS; i++) {
+            TaskEvents.TaskEvent event = sampleEvent(i);
+            events.add(event);
+            messages.add(converter.toMessage(event, session, TOPIC));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws JMSException {
+        session.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public Message encode() throws JMSException {
+        return converter.toMessage(events.get(nextIndex()), session, TOPIC);
+    }
+
+    @Benchmark
+    public Object decode() throws JMSException {
+        Message message = messages.get(nextIndex());
+        if (message instanceof BytesMessage bytesMessage) {
+            bytesMessage.reset(); // Rewind the body read by the previous pass
+        }
+        return converter.fromMessage(message);
+    }
+
+    private int nextIndex() {
+        int index = next;
+        next = index + 1 == EVENTS ? 0 : index + 1;
+        return index;
+    }
+
+    private static TaskEvents.TaskEvent sampleEvent(int i) {
+        Task task = new Task("Task-" + i, "Generated task number " + i + " for the codec benchmark");
+        TaskEvents.TaskEvent event = switch (i % 3) {
+            case 0 -> {
+                task.setStatus(Task.TaskStatus.PENDING);
+                yield new TaskEvents.TaskCreatedEvent(task, 500 + i);
+            }
+            case 1 -> {
+                task.setStatus(Task.TaskStatus.PROCESSING);
+                task.incrementAttempts();
+                yield new TaskEvents.TaskProcessingStartedEvent(task);
+            }
+            default -> {
+                task.setStatus(i % 5 == 0 ? Task.TaskStatus.FAILED : Task.TaskStatus.COMPLETED);
+                task.updateProgress(100.0);
+                yield new TaskEvents.TaskCompletedEvent(task, 5000 + i);
+            }
+        };
+        event.setTimestamp(LocalDateTime.now());
+        return event;
+    }
+}
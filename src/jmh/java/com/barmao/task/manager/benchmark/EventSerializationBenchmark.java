@@ -0,0 +1,79 @@
+package com.barmao.task.manager.benchmark;
+
+import com.barmao.task.manager.config.JmsConfig;
+import com.barmao.task.manager.event.TaskEvents;
+import com.barmao.task.manager.model.Task;
+import jakarta.jms.Connection;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.Session;
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.jms.support.converter.MessageConverter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of task events through the JSON message converter
+ * configured in JmsConfig, the path every JSON topic message takes.
+ * Messages are built on an in-VM ActiveMQ session and never sent.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class EventSerializationBenchmark {
+
+    @Param({"CREATED", "STARTED", "COMPLETED"})
+    public String eventType;
+
+    private MessageConverter converter;
+    private Connection connection;
+    private Session session;
+    private TaskEvents.TaskEvent event;
+    private Message message;
+
+    @Setup
+    public void setUp() throws JMSException {
+        converter = new JmsConfig().jacksonJmsMessageConverter();
+        connection = new ActiveMQConnectionFactory(
+                "vm://serialization-benchmark?broker.persistent=false&broker.useJmx=false").createConnection();
+        session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+
+        Task task = new Task("Benchmark task", "An event payload of typical size");
+        task.setStatus(Task.TaskStatus.PROCESSING);
+        task.incrementAttempts();
+        event = switch (eventType) {
+            case "CREATED" -> new TaskEvents.TaskCreatedEvent(task, 850);
+            case "STARTED" -> new TaskEvents.TaskProcessingStartedEvent(task);
+            default -> {
+                task.setStatus(Task.TaskStatus.COMPLETED);
+                yield new TaskEvents.TaskCompletedEvent(task, 4200);
+            }
+        };
+        message = converter.toMessage(event, session);
+    }
+
+    @TearDown
+    public void tearDown() throws JMSException {
+        session.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public Message serialize() throws JMSException {
+        return converter.toMessage(event, session);
+    }
+
+    @Benchmark
+    public Object deserialize() throws JMSException {
+        return converter.fromMessage(message);
+    }
+}
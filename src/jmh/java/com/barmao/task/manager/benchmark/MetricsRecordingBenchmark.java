@@ -0,0 +1,85 @@
+package com.barmao.task.manager.benchmark;
+
+import com.barmao.task.manager.model.Task;
+import com.barmao.task.manager.service.TaskCache;
+import com.barmao.task.manager.service.loadtest.TaskMetricsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of TaskMetricsService.recordTaskCompleted, which every task
+ * completion event goes through, with 1 to 64 threads recording into one
+ * service. Recorded outcomes cycle through first-attempt completions,
+ * retried completions, scheduled retries and dead letters.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MetricsRecordingBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Metrics {
+        TaskMetricsService metricsService;
+
+        @Setup
+        public void setUp() {
+            MeterRegistry registry = new SimpleMeterRegistry();
+            metricsService = new TaskMetricsService(new TaskCache(10000, 30, registry), registry);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Outcomes {
+        final Task[] tasks = {
+                completedTask(Task.TaskStatus.COMPLETED, 1),
+                completedTask(Task.TaskStatus.PENDING, 1),
+                completedTask(Task.TaskStatus.COMPLETED, 2),
+                completedTask(Task.TaskStatus.DEAD_LETTER, 3)
+        };
+        int next;
+
+        Task next() {
+            return tasks[next++ & (tasks.length - 1)];
+        }
+
+        private static Task completedTask(Task.TaskStatus status, int attempts) {
+            Task task = new Task("benchmark", null);
+            task.setStatus(status);
+            task.setAttempts(attempts);
+            return task;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void record1Thread(Metrics metrics, Outcomes outcomes) {
+        metrics.metricsService.recordTaskCompleted(outcomes.next(), 1500);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void record4Threads(Metrics metrics, Outcomes outcomes) {
+        metrics.metricsService.recordTaskCompleted(outcomes.next(), 1500);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void record16Threads(Metrics metrics, Outcomes outcomes) {
+        metrics.metricsService.recordTaskCompleted(outcomes.next(), 1500);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void record64Threads(Metrics metrics, Outcomes outcomes) {
+        metrics.metricsService.recordTaskCompleted(outcomes.next(), 1500);
+    }
+}
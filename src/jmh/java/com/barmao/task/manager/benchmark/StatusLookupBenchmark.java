@@ -0,0 +1,156 @@
+package com.barmao.task.manager.benchmark;
+
+import com.barmao.task.manager.Application;
+import com.barmao.task.manager.model.Task;
+import com.barmao.task.manager.repository.TaskRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * The repository's status lookups against table size, with the indexes declared
+ * on the Task entity and without them.
+ *
+ * The schema is the one Hibernate generates from the entity when the application
+ * starts; the unindexed runs drop every secondary index it created, so the
+ * comparison follows the entity as indexes are added. Starts the application
+ * without the web server; each combination gets its own in-memory database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class StatusLookupBenchmark {
+
+    private static final int INSERT_BATCH = 5000;
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"10000", "100000"})
+    public int rows;
+
+    @Param({"true", "false"})
+    public boolean indexed;
+
+    private ConfigurableApplicationContext context;
+    private TaskRepository taskRepository;
+    private TransactionTemplate readOnlyTransaction;
+    private LocalDateTime recent;
+
+    @Setup
+    public void setUp() {
+        String name = "lookup" + rows + (indexed ? "indexed" : "plain");
+        context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1",
+                        "spring.activemq.broker-url=vm://" + name + "?broker.persistent=false&broker.useJmx=false",
+                        "spring.jmx.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+        taskRepository = context.getBean(TaskRepository.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        if (!indexed) {
+            dropSecondaryIndexes(jdbcTemplate);
+        }
+        populate(jdbcTemplate);
+        jdbcTemplate.execute("ANALYZE");
+        recent = LocalDateTime.now().minusMinutes(5);
+    }
+
+    private void dropSecondaryIndexes(JdbcTemplate jdbcTemplate) {
+        List<String> indexes = jdbcTemplate.queryForList("select index_name from information_schema.indexes "
+                + "where table_name = 'TASKS' and index_type_name = 'INDEX'", String.class);
+        for (String index : indexes) {
+            jdbcTemplate.execute("drop index " + index);
+        }
+    }
+
+    // Realistic mix: most tasks are finished, a few percent are pending (some scheduled) or running
+    private void populate(JdbcTemplate jdbcTemplate) {
+        String sql = "insert into tasks (id, name, description, status, created_at, completed_at, not_before, "
+                + "attempts, progress, priority, version) values (?, ?, ?, ?, ?, ?, ?, 1, 0, ?, 0)";
+        LocalDateTime start = LocalDateTime.now().minusDays(1);
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+        for (int i = 0; i < rows; i++) {
+            int bucket = i % 100;
+            Task.TaskStatus status = bucket < 2 ? Task.TaskStatus.PENDING
+                    : bucket < 5 ? Task.TaskStatus.PROCESSING
+                    : bucket < 85 ? Task.TaskStatus.COMPLETED
+                    : Task.TaskStatus.FAILED;
+            LocalDateTime createdAt = start.plusNanos(i * 1_000_000L);
+            Timestamp completedAt = status == Task.TaskStatus.COMPLETED ? Timestamp.valueOf(createdAt.plusSeconds(5)) : null;
+            Timestamp notBefore = status == Task.TaskStatus.PENDING && i % 2 == 0
+                    ? Timestamp.valueOf(LocalDateTime.now().plusHours(1)) : null;
+            batch.add(new Object[]{UUID.randomUUID().toString(), "Task-" + i, "Benchmark task", status.name(),
+                    Timestamp.valueOf(createdAt), completedAt, notBefore, i % Task.TaskPriority.values().length});
+            if (batch.size() == INSERT_BATCH || i == rows - 1) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<String> pendingIds() {
+        return taskRepository.findIdsByStatus(Task.TaskStatus.PENDING);
+    }
+
+    @Benchmark
+    public List<Task> pendingPage() {
+        return taskRepository.findFirstPageByStatus(Task.TaskStatus.PENDING, PageRequest.of(0, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public List<String> duePendingIdsByPriority() {
+        return taskRepository.findDueIdsByStatusInPriorityOrder(Task.TaskStatus.PENDING, LocalDateTime.now(),
+                PageRequest.of(0, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public List<Task> processingTasks() {
+        return taskRepository.findByStatus(Task.TaskStatus.PROCESSING);
+    }
+
+    @Benchmark
+    public long completedRecently() {
+        return taskRepository.countByStatusAndCompletedAtAfter(Task.TaskStatus.COMPLETED, recent);
+    }
+
+    // What the delayed-task scheduler reads when it rebuilds its timers
+    @Benchmark
+    public Long scheduledPending() {
+        return readOnlyTransaction.execute(status -> {
+            try (Stream<Object[]> scheduled = taskRepository.streamScheduled(Task.TaskStatus.PENDING)) {
+                return scheduled.count();
+            }
+        });
+    }
+}
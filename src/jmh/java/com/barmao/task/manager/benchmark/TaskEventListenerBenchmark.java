@@ -0,0 +1,59 @@
+package com.barmao.task.manager.benchmark;
+
+import com.barmao.task.manager.event.TaskEventConsumerMetrics;
+import com.barmao.task.manager.event.TaskEventListener;
+import com.barmao.task.manager.event.TaskEvents;
+import com.barmao.task.manager.model.Task;
+import com.barmao.task.manager.service.TaskCache;
+import com.barmao.task.manager.service.loadtest.TaskMetricsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-process listeners every started and completed event goes through:
+ * cache invalidation, building a Task from the event (allocation and status
+ * parsing) and recording the metrics.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class TaskEventListenerBenchmark {
+
+    private TaskEventListener listener;
+    private TaskEvents.TaskProcessingStartedEvent startedEvent;
+    private TaskEvents.TaskCompletedEvent completedEvent;
+
+    @Setup
+    public void setUp() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        TaskCache taskCache = new TaskCache(10000, 30, registry);
+        listener = new TaskEventListener(new TaskMetricsService(taskCache, registry), taskCache,
+                new TaskEventConsumerMetrics(registry));
+
+        Task task = new Task("Benchmark task", "Event source");
+        task.setStatus(Task.TaskStatus.PROCESSING);
+        task.incrementAttempts();
+        startedEvent = new TaskEvents.TaskProcessingStartedEvent(task);
+        task.setStatus(Task.TaskStatus.COMPLETED);
+        completedEvent = new TaskEvents.TaskCompletedEvent(task, 4200);
+    }
+
+    @Benchmark
+    public void handleStarted() {
+        listener.handleTaskProcessingStartedEvent(startedEvent);
+    }
+
+    @Benchmark
+    public void handleCompleted() {
+        listener.handleTaskCompletedEvent(completedEvent);
+    }
+}
@@ -0,0 +1,75 @@
+package com.barmao.task.manager.benchmark;
+
+import com.barmao.task.manager.model.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the in-memory Task state changes made on every processing run:
+ * the status lifecycle (synchronized setters), progress updates and the
+ * attempt counter, uncontended and with several threads on one task.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TaskStateBenchmark {
+
+    @State(Scope.Thread)
+    public static class OwnTask {
+        Task task;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            task = new Task("benchmark", "state transitions");
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class SharedTask {
+        Task task;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            task = new Task("benchmark", "shared attempts");
+        }
+    }
+
+    @Benchmark
+    public Task lifecycle(OwnTask state) {
+        Task task = state.task;
+        task.setStatus(Task.TaskStatus.PENDING);
+        task.setStatus(Task.TaskStatus.PROCESSING);
+        task.updateProgress(50.0);
+        task.setStatus(Task.TaskStatus.COMPLETED); // Also stamps completedAt
+        return task;
+    }
+
+    @Benchmark
+    public void updateProgress(OwnTask state) {
+        state.task.updateProgress(42.0);
+    }
+
+    @Benchmark
+    public int incrementAttempts(OwnTask state) {
+        return state.task.incrementAttempts();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int incrementAttemptsContended(SharedTask state) {
+        return state.task.incrementAttempts();
+    }
+
+    @Benchmark
+    public Task copy(OwnTask state) {
+        return state.task.copy();
+    }
+}
@@ -0,0 +1,104 @@
+package com.barmao.task.manager.benchmark;
+
+import com.barmao.task.manager.Application;
+import com.barmao.task.manager.model.Task;
+import com.barmao.task.manager.repository.TaskRepository;
+import com.barmao.task.manager.service.TaskService;
+import com.barmao.task.manager.service.TaskStatisticsTracker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * getTaskStatistics with 10k, 100k and 1M tasks in an in-memory H2 database,
+ * next to the GROUP BY query the live counters are seeded and reconciled with.
+ * The first should stay flat as the table grows; the second is the cost the
+ * counters keep off the request path.
+ *
+ * Starts the application without the web server; each table size gets its own database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class TaskStatisticsBenchmark {
+
+    private static final int INSERT_BATCH = 5000;
+    // Rough mix of a busy system: mostly finished tasks
+    private static final Task.TaskStatus[] STATUS_MIX = {
+            Task.TaskStatus.COMPLETED, Task.TaskStatus.COMPLETED, Task.TaskStatus.COMPLETED,
+            Task.TaskStatus.COMPLETED, Task.TaskStatus.FAILED, Task.TaskStatus.PENDING,
+            Task.TaskStatus.PENDING, Task.TaskStatus.PROCESSING
+    };
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private TaskRepository taskRepository;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:statistics" + rows + ";DB_CLOSE_DELAY=-1",
+                        "spring.activemq.broker-url=vm://statistics" + rows
+                                + "?broker.persistent=false&broker.useJmx=false",
+                        "spring.jmx.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+        taskService = context.getBean(TaskService.class);
+        taskRepository = context.getBean(TaskRepository.class);
+
+        populate(context.getBean(JdbcTemplate.class));
+        context.getBean(TaskStatisticsTracker.class).seed(); // Pick up the rows inserted behind its back
+    }
+
+    private void populate(JdbcTemplate jdbcTemplate) {
+        String sql = "insert into tasks (id, name, description, status, created_at, attempts, progress, priority, version) "
+                + "values (?, ?, ?, ?, ?, 0, 0, 1, 0)";
+        LocalDateTime start = LocalDateTime.now().minusDays(1);
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Object[]{UUID.randomUUID().toString(), "Task " + i, "Benchmark row",
+                    STATUS_MIX[i % STATUS_MIX.length].name(), Timestamp.valueOf(start.plusNanos(i * 1000L))});
+            if (batch.size() == INSERT_BATCH || i == rows - 1) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TaskService.TaskStatistics getTaskStatistics() {
+        return taskService.getTaskStatistics();
+    }
+
+    @Benchmark
+    public List<Object[]> countByStatusQuery() {
+        return taskRepository.countByStatus();
+    }
+}
@@ -1,8 +1,11 @@
 package com.barmao.task.manager.config;
 
+import com.barmao.task.manager.model.Task;
+import com.barmao.task.manager.service.loadtest.TaskMetricsService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
@@ -24,17 +27,49 @@ public class AsyncConfig {
     @Value("${task.manager.executor.keep-alive-seconds:60}")
     private int keepAliveSeconds;
 
+    @Value("${task.manager.executor.priority-aging-ms:2000}")
+    private long priorityAgingMs;
+
+    @Value("${task.manager.executor.mode:PLATFORM}")
+    private ExecutorMode taskExecutorMode;
+
+    @Value("${task.manager.executor.virtual-max-concurrency:200}")
+    private int taskExecutorMaxConcurrency;
+
+    @Value("${task.manager.high-load-executor.mode:PLATFORM}")
+    private ExecutorMode highLoadExecutorMode;
+
+    @Value("${task.manager.high-load-executor.virtual-max-concurrency:1000}")
+    private int highLoadExecutorMaxConcurrency;
+
+    // How an executor bean runs its tasks
+    public enum ExecutorMode {
+        PLATFORM, // Bounded pool of platform threads with a queue
+        VIRTUAL   // One virtual thread per task, capped by a semaphore (Java 21+)
+    }
+
     @Bean(name = "taskExecutor")
-    public Executor taskExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    public Executor taskExecutor(TaskMetricsService metricsService) {
+        if (taskExecutorMode == ExecutorMode.VIRTUAL) {
+            // No queue to order - priorities do not apply to virtual threads
+            BoundedVirtualThreadExecutor executor =
+                    new BoundedVirtualThreadExecutor("TaskThread-", taskExecutorMaxConcurrency);
+            executor.setTaskDecorator(queueWaitRecorder(metricsService));
+            return executor;
+        }
+
+        // Highest priority first, with aging so low-priority tasks still get through
+        PriorityTaskExecutor executor = new PriorityTaskExecutor(priorityAgingMs);
         executor.setCorePoolSize(corePoolSize); // Number of core threads
         executor.setMaxPoolSize(maxPoolSize); // Max threads when queue is full
         executor.setQueueCapacity(queueCapacity); // Queue capacity before scaling up
         executor.setKeepAliveSeconds(keepAliveSeconds);
         executor.setThreadNamePrefix("TaskThread-"); // Thread name prefix for debugging
+        executor.setQueueWaitListener(metricsService::recordQueueWait); // Queue wait per priority
 
         // Rejection policy: Caller runs - good for controlled overload scenarios
-        executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setRejectedExecutionHandler(new CountingRejectedExecutionHandler(
+                new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy()));
 
         executor.initialize();
         return executor;
@@ -47,12 +82,19 @@ public class AsyncConfig {
         executor.setMaxPoolSize(2);
         executor.setQueueCapacity(10);
         executor.setThreadNamePrefix("ReportThread-");
+        // Default AbortPolicy, counted so report overload shows up in the metrics
+        executor.setRejectedExecutionHandler(new CountingRejectedExecutionHandler(
+                new java.util.concurrent.ThreadPoolExecutor.AbortPolicy()));
         executor.initialize();
         return executor;
     }
 
     @Bean(name = "highLoadExecutor")
     public Executor highLoadExecutor() {
+        if (highLoadExecutorMode == ExecutorMode.VIRTUAL) {
+            return new BoundedVirtualThreadExecutor("HighLoad-", highLoadExecutorMaxConcurrency);
+        }
+
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         // Higher capacity for load testing
         executor.setCorePoolSize(20);
@@ -62,9 +104,21 @@ public class AsyncConfig {
         executor.setThreadNamePrefix("HighLoad-");
 
         // Use CallerRunsPolicy for backpressure instead of throwing exceptions
-        executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setRejectedExecutionHandler(new CountingRejectedExecutionHandler(
+                new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy()));
 
         executor.initialize();
         return executor;
     }
+
+    // Records the time between submission and the start of execution
+    private TaskDecorator queueWaitRecorder(TaskMetricsService metricsService) {
+        return runnable -> {
+            long submittedAt = System.nanoTime();
+            return () -> {
+                metricsService.recordQueueWait(Task.TaskPriority.NORMAL, System.nanoTime() - submittedAt);
+                runnable.run();
+            };
+        };
+    }
 }
@@ -0,0 +1,75 @@
+package com.barmao.task.manager.config;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Executor that runs every task on its own virtual thread, with a semaphore
+ * capping how many tasks may run at once.
+ *
+ * Virtual threads make blocking (sleeps, JDBC, JMS) cheap, so there is no pool
+ * to size and no queue to fill. Each task's virtual thread starts right away and
+ * waits for a permit itself; submitting never blocks. A submitter may be a task
+ * of this executor (e.g. a CompletableFuture callback submitting the next task)
+ * that holds a permit: were it to wait for another, a burst of such callbacks
+ * would hold every permit while waiting and deadlock.
+ * Requires Java 21 at runtime.
+ */
+public class BoundedVirtualThreadExecutor implements AsyncTaskExecutor {
+
+    private final VirtualThreadTaskExecutor delegate;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final LongAdder completedTasks = new LongAdder();
+    private TaskDecorator taskDecorator;
+
+    public BoundedVirtualThreadExecutor(String threadNamePrefix, int maxConcurrency) {
+        this.delegate = new VirtualThreadTaskExecutor(threadNamePrefix);
+        this.permits = new Semaphore(maxConcurrency, true); // Fair - submitters are admitted in order
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Decorator applied to each task at submission, on the submitting thread
+     */
+    public void setTaskDecorator(TaskDecorator taskDecorator) {
+        this.taskDecorator = taskDecorator;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        Runnable task = taskDecorator != null ? taskDecorator.decorate(command) : command;
+        delegate.execute(() -> {
+            // Uninterruptibly: an accepted task must run, or its future would never complete
+            permits.acquireUninterruptibly();
+            try {
+                task.run();
+            } finally {
+                completedTasks.increment();
+                permits.release();
+            }
+        });
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    // Number of tasks currently running
+    public int getActiveCount() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    // Number of started tasks waiting for a permit
+    public int getWaitingCount() {
+        return permits.getQueueLength();
+    }
+
+    public long getCompletedTaskCount() {
+        return completedTasks.sum();
+    }
+}
@@ -0,0 +1,29 @@
+package com.barmao.task.manager.config;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rejection handler that counts rejections before delegating, so saturation
+ * is visible even when the delegate (e.g. CallerRunsPolicy) absorbs it.
+ */
+public class CountingRejectedExecutionHandler implements RejectedExecutionHandler {
+
+    private final RejectedExecutionHandler delegate;
+    private final LongAdder rejectedCount = new LongAdder();
+
+    public CountingRejectedExecutionHandler(RejectedExecutionHandler delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+        rejectedCount.increment();
+        delegate.rejectedExecution(task, executor);
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+}
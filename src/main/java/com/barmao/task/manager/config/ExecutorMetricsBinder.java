@@ -0,0 +1,72 @@
+package com.barmao.task.manager.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Registers saturation meters for the executors defined in {@link AsyncConfig},
+ * tagged with the executor bean name:
+ * task.executor.active, .queued, .pool.size, .completed and .rejected.
+ */
+@Component
+public class ExecutorMetricsBinder implements MeterBinder {
+
+    private final Map<String, Executor> executors;
+
+    @Autowired
+    public ExecutorMetricsBinder(Map<String, Executor> executors) {
+        this.executors = executors;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        executors.forEach((name, executor) -> {
+            Tags tags = Tags.of("executor", name);
+            if (executor instanceof ThreadPoolTaskExecutor poolExecutor) {
+                bindThreadPool(registry, tags, poolExecutor.getThreadPoolExecutor());
+            } else if (executor instanceof BoundedVirtualThreadExecutor virtualExecutor) {
+                bindVirtual(registry, tags, virtualExecutor);
+            }
+        });
+    }
+
+    private void bindThreadPool(MeterRegistry registry, Tags tags, ThreadPoolExecutor pool) {
+        Gauge.builder("task.executor.active", pool, ThreadPoolExecutor::getActiveCount)
+                .tags(tags).description("Threads currently running tasks").register(registry);
+        Gauge.builder("task.executor.queued", pool, p -> p.getQueue().size())
+                .tags(tags).description("Tasks waiting in the queue").register(registry);
+        Gauge.builder("task.executor.pool.size", pool, ThreadPoolExecutor::getPoolSize)
+                .tags(tags).description("Current number of threads").register(registry);
+        FunctionCounter.builder("task.executor.completed", pool, ThreadPoolExecutor::getCompletedTaskCount)
+                .tags(tags).description("Tasks completed").register(registry);
+
+        RejectedExecutionHandler handler = pool.getRejectedExecutionHandler();
+        if (handler instanceof CountingRejectedExecutionHandler countingHandler) {
+            FunctionCounter.builder("task.executor.rejected", countingHandler,
+                            CountingRejectedExecutionHandler::getRejectedCount)
+                    .tags(tags).description("Tasks rejected by a full pool and queue").register(registry);
+        }
+    }
+
+    private void bindVirtual(MeterRegistry registry, Tags tags, BoundedVirtualThreadExecutor executor) {
+        Gauge.builder("task.executor.active", executor, BoundedVirtualThreadExecutor::getActiveCount)
+                .tags(tags).description("Virtual threads currently running tasks").register(registry);
+        Gauge.builder("task.executor.queued", executor, BoundedVirtualThreadExecutor::getWaitingCount)
+                .tags(tags).description("Tasks waiting for a concurrency permit").register(registry);
+        Gauge.builder("task.executor.pool.size", executor, BoundedVirtualThreadExecutor::getMaxConcurrency)
+                .tags(tags).description("Concurrency cap").register(registry);
+        FunctionCounter.builder("task.executor.completed", executor, BoundedVirtualThreadExecutor::getCompletedTaskCount)
+                .tags(tags).description("Tasks completed").register(registry);
+    }
+}
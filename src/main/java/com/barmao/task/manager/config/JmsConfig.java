@@ -1,9 +1,15 @@
 package com.barmao.task.manager.config;
 
+import com.barmao.task.manager.event.TaskEventMessageConverter;
+import com.barmao.task.manager.service.TaskWorkQueue;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import jakarta.jms.ConnectionFactory;
+import jakarta.jms.Session;
+import org.apache.activemq.RedeliveryPolicy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jms.activemq.ActiveMQConnectionFactoryCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.jms.annotation.EnableJms;
@@ -14,39 +20,162 @@ import org.springframework.jms.support.converter.MappingJackson2MessageConverter
 import org.springframework.jms.support.converter.MessageConverter;
 import org.springframework.jms.support.converter.MessageType;
 
+import java.util.Set;
+
 @Configuration
 @EnableJms
 public class JmsConfig {
 
+    // Message property carrying the payload class name
+    public static final String TYPE_ID_PROPERTY = "_type";
+
+    // Topics whose events are sent in the compact binary format instead of JSON
+    @Value("${task.manager.events.binary-topics:}")
+    private Set<String> binaryTopics;
+
+    @Value("${task.manager.jms.consumer.mode:TOPIC}")
+    private JmsDestinations.ConsumerMode consumerMode;
+
+    @Value("${task.manager.jms.consumer.group:task-manager}")
+    private String consumerGroup;
+
+    @Value("${task.manager.jms.consumer.concurrency:1-4}")
+    private String consumerConcurrency;
+
+    @Value("${task.manager.jms.consumer.batch-acknowledge:true}")
+    private boolean batchAcknowledge;
+
+    @Value("${task.manager.execution.mode:LOCAL}")
+    private TaskWorkQueue.ExecutionMode executionMode;
+
+    @Value("${task.manager.work-queue.workers:4}")
+    private int workQueueWorkers;
+
+    @Value("${task.manager.work-queue.prefetch:1}")
+    private int workQueuePrefetch;
+
+    @Value("${task.manager.work-queue.max-redeliveries:3}")
+    private int workQueueMaxRedeliveries;
+
+    @Bean
+    public JmsDestinations jmsDestinations() {
+        return new JmsDestinations(consumerMode, consumerGroup);
+    }
+
+    /**
+     * Broadcast subscriptions: every node sees every event (e.g. to invalidate
+     * its own cache). Single consumer per listener - more would only duplicate.
+     */
     @Bean
     public JmsListenerContainerFactory<?> topicListenerFactory(ConnectionFactory connectionFactory) {
         DefaultJmsListenerContainerFactory factory = new DefaultJmsListenerContainerFactory();
         factory.setConnectionFactory(connectionFactory);
         factory.setPubSubDomain(true); // Enable pub/sub model (topics)
-        factory.setMessageConverter(jacksonJmsMessageConverter());
+        factory.setMessageConverter(taskEventMessageConverter());
+        factory.setDestinationResolver((session, name, pubSub) -> pubSub
+                ? session.createTopic(jmsDestinations().topicName(name))
+                : session.createQueue(name));
         return factory;
     }
 
+    /**
+     * Work-sharing consumers: in SHARED_DURABLE or VIRTUAL_TOPIC mode the
+     * listener threads of all nodes split each event stream between them.
+     * SHARED_DURABLE needs a broker with JMS 2.0 shared subscriptions; the
+     * embedded ActiveMQ Classic broker supports VIRTUAL_TOPIC.
+     */
+    @Bean
+    public JmsListenerContainerFactory<?> eventConsumerListenerFactory(ConnectionFactory connectionFactory) {
+        DefaultJmsListenerContainerFactory factory = new DefaultJmsListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(taskEventMessageConverter());
+
+        JmsDestinations destinations = jmsDestinations();
+        switch (destinations.getMode()) {
+            case TOPIC -> factory.setPubSubDomain(true); // Concurrency would only duplicate deliveries
+            case SHARED_DURABLE -> {
+                factory.setPubSubDomain(true);
+                factory.setSubscriptionShared(true);
+                factory.setSubscriptionDurable(true);
+                factory.setConcurrency(consumerConcurrency);
+            }
+            case VIRTUAL_TOPIC -> {
+                factory.setPubSubDomain(false);
+                factory.setDestinationResolver((session, name, pubSub) ->
+                        session.createQueue(destinations.consumerQueueName(name)));
+                factory.setConcurrency(consumerConcurrency);
+            }
+        }
+
+        if (batchAcknowledge) {
+            // Acknowledged lazily in batches; a crash may redeliver a few events
+            factory.setSessionAcknowledgeMode(Session.DUPS_OK_ACKNOWLEDGE);
+        }
+        return factory;
+    }
+
+    /**
+     * Competing workers for the task work queue. Transacted so a task whose
+     * worker dies is redelivered; each worker holds at most prefetch messages,
+     * so long tasks are not hoarded by one consumer. Only started in QUEUE mode.
+     */
+    @Bean
+    public JmsListenerContainerFactory<?> workQueueListenerFactory(ConnectionFactory connectionFactory) {
+        DefaultJmsListenerContainerFactory factory = new DefaultJmsListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setPubSubDomain(false);
+        factory.setSessionTransacted(true);
+        factory.setConcurrency(String.valueOf(workQueueWorkers));
+        factory.setAutoStartup(executionMode == TaskWorkQueue.ExecutionMode.QUEUE);
+        factory.setDestinationResolver((session, name, pubSub) ->
+                session.createQueue(name + "?consumer.prefetchSize=" + workQueuePrefetch));
+        return factory;
+    }
+
+    // Redelivery of rolled-back messages; after the last attempt ActiveMQ moves them to ActiveMQ.DLQ
+    @Bean
+    public ActiveMQConnectionFactoryCustomizer redeliveryPolicyCustomizer() {
+        return connectionFactory -> {
+            RedeliveryPolicy policy = connectionFactory.getRedeliveryPolicy();
+            policy.setMaximumRedeliveries(workQueueMaxRedeliveries);
+            policy.setInitialRedeliveryDelay(1000);
+            policy.setUseExponentialBackOff(true);
+        };
+    }
+
     @Bean
     public JmsTemplate jmsTemplate(ConnectionFactory connectionFactory) {
         JmsTemplate template = new JmsTemplate(connectionFactory);
         template.setPubSubDomain(true); // Enable pub/sub model (topics)
-        template.setMessageConverter(jacksonJmsMessageConverter());
+        template.setMessageConverter(taskEventMessageConverter());
         return template;
     }
 
+    @Bean
+    public TaskEventMessageConverter taskEventMessageConverter() {
+        // Reads both formats; writes binary only for the configured topics
+        return new TaskEventMessageConverter(jacksonJmsMessageConverter(), binaryTopics);
+    }
+
     @Bean
     public MessageConverter jacksonJmsMessageConverter() {
         MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
         converter.setTargetType(MessageType.TEXT);
-        converter.setTypeIdPropertyName("_type");
+        converter.setTypeIdPropertyName(TYPE_ID_PROPERTY);
 
+        converter.setObjectMapper(createEventObjectMapper());
+        return converter;
+    }
+
+    /**
+     * Object mapper for JSON event payloads, shared with the outbox so relayed
+     * messages are identical to ones the converter would produce
+     */
+    public static ObjectMapper createEventObjectMapper() {
         // Configure the object mapper with proper modules for Java 8 date/time
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
         objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-
-        converter.setObjectMapper(objectMapper);
-        return converter;
+        return objectMapper;
     }
 }
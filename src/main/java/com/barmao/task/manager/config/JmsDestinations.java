@@ -0,0 +1,50 @@
+package com.barmao.task.manager.config;
+
+/**
+ * Maps logical event topic names (task-created, ...) to broker destinations
+ * for the configured consumer mode.
+ *
+ * In VIRTUAL_TOPIC mode events are published to ActiveMQ virtual topics
+ * (VirtualTopic.&lt;name&gt;) and each consumer group reads its own queue
+ * (Consumer.&lt;group&gt;.VirtualTopic.&lt;name&gt;), so the consumers of a group
+ * split the stream. Plain subscribers of the virtual topic still see every event.
+ */
+public class JmsDestinations {
+
+    public enum ConsumerMode {
+        // Non-durable topic subscription - every consumer gets every event
+        TOPIC,
+        // JMS 2.0 shared durable subscription - consumers with the same subscription name share events
+        SHARED_DURABLE,
+        // ActiveMQ virtual topic - consumers of a group share a queue
+        VIRTUAL_TOPIC
+    }
+
+    private static final String VIRTUAL_TOPIC_PREFIX = "VirtualTopic.";
+
+    private final ConsumerMode mode;
+    private final String consumerGroup;
+
+    public JmsDestinations(ConsumerMode mode, String consumerGroup) {
+        this.mode = mode;
+        this.consumerGroup = consumerGroup;
+    }
+
+    public ConsumerMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Topic that events with the given logical name are published to
+     */
+    public String topicName(String name) {
+        return mode == ConsumerMode.VIRTUAL_TOPIC ? VIRTUAL_TOPIC_PREFIX + name : name;
+    }
+
+    /**
+     * Queue this node's consumer group reads in VIRTUAL_TOPIC mode
+     */
+    public String consumerQueueName(String name) {
+        return "Consumer." + consumerGroup + "." + VIRTUAL_TOPIC_PREFIX + name;
+    }
+}
@@ -0,0 +1,124 @@
+package com.barmao.task.manager.config;
+
+import com.barmao.task.manager.model.Task;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Comparator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread pool whose queue hands out the highest-priority task first, with aging
+ * so low-priority work cannot starve.
+ *
+ * Each queued task is ordered by its submission time minus one aging step per
+ * priority level: a HIGH task overtakes a LOW one that has waited less than two
+ * aging steps, while a LOW task that has waited longer runs first. The sort key
+ * never changes after submission, so a plain priority heap implements the aging.
+ *
+ * Tasks submitted through the regular Executor methods (e.g. {@code @Async})
+ * count as NORMAL. A task decorator set on the executor is applied to the task
+ * itself, inside the wrapper that carries its priority. The queue is bounded like the default one, so the pool still
+ * grows to its maximum size and then applies the rejection policy.
+ */
+public class PriorityTaskExecutor extends ThreadPoolTaskExecutor {
+
+    /**
+     * Receives the time each task spent queued, by priority
+     */
+    public interface QueueWaitListener {
+        void onStarted(Task.TaskPriority priority, long waitNanos);
+    }
+
+    private final long agingNanos;
+    private final AtomicLong sequence = new AtomicLong();
+    private QueueWaitListener queueWaitListener = (priority, waitNanos) -> { };
+    private TaskDecorator taskDecorator;
+
+    public PriorityTaskExecutor(long agingMillis) {
+        this.agingNanos = TimeUnit.MILLISECONDS.toNanos(agingMillis);
+        super.setTaskDecorator(this::prioritize);
+    }
+
+    public void setQueueWaitListener(QueueWaitListener queueWaitListener) {
+        this.queueWaitListener = queueWaitListener;
+    }
+
+    /**
+     * Decorator applied to each task at submission. The priority wrapper the queue
+     * orders by stays outermost; the decorator wraps the task inside it.
+     */
+    @Override
+    public void setTaskDecorator(TaskDecorator taskDecorator) {
+        this.taskDecorator = taskDecorator;
+    }
+
+    /**
+     * Submit a task with the given priority
+     */
+    public void execute(Runnable task, Task.TaskPriority priority) {
+        execute(new QueuedTask(task, priority));
+    }
+
+    private Runnable prioritize(Runnable runnable) {
+        QueuedTask queued = runnable instanceof QueuedTask task ? task : new QueuedTask(runnable, Task.TaskPriority.NORMAL);
+        if (taskDecorator != null) {
+            queued.delegate = taskDecorator.decorate(queued.delegate);
+        }
+        return queued;
+    }
+
+    @Override
+    protected BlockingQueue<Runnable> createQueue(int queueCapacity) {
+        return new BoundedPriorityQueue(queueCapacity);
+    }
+
+    private class QueuedTask implements Runnable {
+        private Runnable delegate; // Decorated once, on the submitting thread
+        private final Task.TaskPriority priority;
+        private final long submittedAt = System.nanoTime();
+        private final long sortKey;
+        private final long seq = sequence.getAndIncrement(); // FIFO among equal keys
+
+        QueuedTask(Runnable delegate, Task.TaskPriority priority) {
+            this.delegate = delegate;
+            this.priority = priority;
+            this.sortKey = submittedAt - priority.ordinal() * agingNanos;
+        }
+
+        @Override
+        public void run() {
+            queueWaitListener.onStarted(priority, System.nanoTime() - submittedAt);
+            delegate.run();
+        }
+    }
+
+    private static final Comparator<Runnable> QUEUE_ORDER = Comparator
+            .comparingLong((Runnable task) -> ((QueuedTask) task).sortKey)
+            .thenComparingLong(task -> ((QueuedTask) task).seq);
+
+    // PriorityBlockingQueue is unbounded; refusing offers past the capacity lets
+    // the pool grow and the rejection policy apply as with a bounded FIFO queue
+    private static class BoundedPriorityQueue extends PriorityBlockingQueue<Runnable> {
+        private final int capacity;
+
+        BoundedPriorityQueue(int capacity) {
+            super(11, QUEUE_ORDER);
+            this.capacity = capacity;
+        }
+
+        @Override
+        public synchronized boolean offer(Runnable task) {
+            // Offers are serialized so the size check holds; takes need no lock of ours
+            return size() < capacity && super.offer(task);
+        }
+
+        @Override
+        public int remainingCapacity() {
+            return Math.max(0, capacity - size());
+        }
+    }
+}
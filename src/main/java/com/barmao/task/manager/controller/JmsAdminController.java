@@ -1,5 +1,6 @@
 package com.barmao.task.manager.controller;
 
+import com.barmao.task.manager.event.BatchingJmsPublisher;
 import org.apache.activemq.broker.jmx.BrokerViewMBean;
 import org.apache.activemq.broker.jmx.QueueViewMBean;
 import org.apache.activemq.broker.jmx.TopicViewMBean;
@@ -25,10 +26,12 @@ import java.util.Map;
 public class JmsAdminController {
 
     private final JmsTemplate jmsTemplate;
+    private final BatchingJmsPublisher jmsPublisher;
 
     @Autowired
-    public JmsAdminController(JmsTemplate jmsTemplate) {
+    public JmsAdminController(JmsTemplate jmsTemplate, BatchingJmsPublisher jmsPublisher) {
         this.jmsTemplate = jmsTemplate;
+        this.jmsPublisher = jmsPublisher;
     }
 
     /**
@@ -37,6 +40,7 @@ public class JmsAdminController {
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Object>> getJmsStats() {
         Map<String, Object> stats = new HashMap<>();
+        stats.put("publisher", jmsPublisher.getStatistics());
 
         try {
             // Get the MBean server connection
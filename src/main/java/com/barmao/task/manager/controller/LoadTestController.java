@@ -9,6 +9,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.context.request.async.DeferredResult;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -40,6 +42,9 @@ public class LoadTestController {
     @PostMapping("/process-parallel")
     public ResponseEntity<String> processTasksInParallel(@RequestBody Map<String, Object> request) {
         int maxConcurrent = getIntParameter(request, "maxConcurrent", 10);
+        if (maxConcurrent < 1) {
+            return ResponseEntity.badRequest().body("maxConcurrent must be at least 1");
+        }
 
         // Start the parallel processing in the background
         loadTestService.processExistingTasksInParallel(maxConcurrent);
@@ -50,6 +55,62 @@ public class LoadTestController {
         );
     }
 
+    // Throughput/latency curve over a list of concurrency levels, e.g. {"levels":[1,2,4,8,16],"tasksPerLevel":40}
+    @PostMapping("/concurrency-sweep")
+    public DeferredResult<ResponseEntity<?>> concurrencySweep(@RequestBody Map<String, Object> request) {
+        DeferredResult<ResponseEntity<?>> deferredResult = new DeferredResult<>(3_600_000L); // 1-hour timeout
+
+        List<Integer> levels = getIntListParameter(request, "levels", List.of(1, 2, 4, 8, 16, 32));
+        int tasksPerLevel = getIntParameter(request, "tasksPerLevel", 40);
+        if (levels.isEmpty() || levels.stream().anyMatch(level -> level < 1) || tasksPerLevel < 1) {
+            deferredResult.setResult(ResponseEntity.badRequest()
+                    .body("levels must be positive integers and tasksPerLevel at least 1"));
+            return deferredResult;
+        }
+
+        loadTestService.sweepConcurrency(levels, tasksPerLevel)
+                .whenComplete((result, throwable) -> {
+                    if (throwable != null) {
+                        deferredResult.setErrorResult(
+                                ResponseEntity.internalServerError().body("Concurrency sweep failed: " + throwable.getMessage())
+                        );
+                    } else {
+                        deferredResult.setResult(ResponseEntity.ok(result));
+                    }
+                });
+
+        return deferredResult;
+    }
+
+    // Fixed-schedule load with latency measured from each task's intended start,
+    // e.g. {"totalTasks":600,"tasksPerSecond":20,"processImmediately":true}
+    @PostMapping("/open-loop")
+    public DeferredResult<ResponseEntity<?>> openLoopLoadTest(@RequestBody Map<String, Object> request) {
+        DeferredResult<ResponseEntity<?>> deferredResult = new DeferredResult<>(3_600_000L); // 1-hour timeout
+
+        int totalTasks = getIntParameter(request, "totalTasks", 1000);
+        double tasksPerSecond = getDoubleParameter(request, "tasksPerSecond", 10);
+        boolean processImmediately = getBooleanParameter(request, "processImmediately", true);
+        if (totalTasks < 1 || !(tasksPerSecond > 0)) {
+            deferredResult.setResult(ResponseEntity.badRequest()
+                    .body("totalTasks must be at least 1 and tasksPerSecond positive"));
+            return deferredResult;
+        }
+
+        loadTestService.generateOpenLoad(totalTasks, tasksPerSecond, processImmediately)
+                .whenComplete((result, throwable) -> {
+                    if (throwable != null) {
+                        deferredResult.setErrorResult(
+                                ResponseEntity.internalServerError().body("Open-loop load test failed: " + throwable.getMessage())
+                        );
+                    } else {
+                        deferredResult.setResult(ResponseEntity.ok(result));
+                    }
+                });
+
+        return deferredResult;
+    }
+
     @PostMapping("/full-load-test")
     public DeferredResult<ResponseEntity<LoadTestService.LoadTestResult>> fullLoadTest(
             @RequestBody Map<String, Object> request) {
@@ -91,6 +152,40 @@ public class LoadTestController {
         return defaultValue;
     }
 
+    private double getDoubleParameter(Map<String, Object> request, String name, double defaultValue) {
+        Object value = request.get(name);
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        } else if (value instanceof String) {
+            try {
+                return Double.parseDouble((String) value);
+            } catch (NumberFormatException e) {
+                return defaultValue;
+            }
+        }
+        return defaultValue;
+    }
+
+    private List<Integer> getIntListParameter(Map<String, Object> request, String name, List<Integer> defaultValue) {
+        Object value = request.get(name);
+        if (!(value instanceof List<?> list)) {
+            return defaultValue;
+        }
+        List<Integer> values = new ArrayList<>(list.size());
+        for (Object element : list) {
+            if (element instanceof Number) {
+                values.add(((Number) element).intValue());
+            } else {
+                try {
+                    values.add(Integer.parseInt(String.valueOf(element)));
+                } catch (NumberFormatException e) {
+                    return defaultValue;
+                }
+            }
+        }
+        return values;
+    }
+
     private boolean getBooleanParameter(Map<String, Object> request, String name, boolean defaultValue) {
         Object value = request.get(name);
         if (value instanceof Boolean) {
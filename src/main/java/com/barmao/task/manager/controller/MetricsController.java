@@ -24,6 +24,12 @@ public class MetricsController {
         return ResponseEntity.ok(metricsService.getMetricsSnapshot());
     }
 
+    // Latency percentiles since the previous call to this endpoint (reset-on-read window)
+    @GetMapping("/latency/interval")
+    public ResponseEntity<TaskMetricsService.LatencyIntervalSnapshot> getLatencyInterval() {
+        return ResponseEntity.ok(metricsService.getLatencyIntervalSnapshot());
+    }
+
     @PostMapping("/reset")
     public ResponseEntity<String> resetMetrics() {
         metricsService.resetMetrics();
@@ -2,28 +2,45 @@ package com.barmao.task.manager.controller;
 
 import com.barmao.task.manager.exception.ConcurrencyException;
 import com.barmao.task.manager.model.Task;
+import com.barmao.task.manager.service.PendingTaskDrain;
 import com.barmao.task.manager.service.ReportService;
 import com.barmao.task.manager.service.TaskService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
 
 @RestController
 @RequestMapping("/api/tasks")
 public class TaskController {
+    private static final int STREAM_FLUSH_ROWS = 100;
+
     private final TaskService taskService;
     private final ReportService reportService;
+    private final ObjectMapper objectMapper;
 
 
     @Autowired
-    public TaskController(TaskService taskService, ReportService reportService) {
+    public TaskController(TaskService taskService, ReportService reportService, ObjectMapper objectMapper) {
         this.taskService = taskService;
         this.reportService = reportService;
+        this.objectMapper = objectMapper;
     }
 
     // SCENARIO 7: Non-blocking REST API with DeferredResult
@@ -33,9 +50,18 @@ public class TaskController {
 
         String name = taskRequest.get("name");
         String description = taskRequest.get("description");
+        Task.TaskPriority priority;
+        LocalDateTime notBefore;
+        try {
+            priority = parsePriority(taskRequest.get("priority"));
+            notBefore = parseNotBefore(taskRequest);
+        } catch (IllegalArgumentException e) {
+            deferredResult.setErrorResult(ResponseEntity.badRequest().body(e.getMessage()));
+            return deferredResult;
+        }
 
         // Process asynchronously
-        taskService.createTaskAsync(name, description)
+        taskService.createTaskAsync(name, description, priority, notBefore)
                 .whenComplete((result, throwable) -> {
                     if (throwable != null) {
                         deferredResult.setErrorResult(
@@ -50,11 +76,61 @@ public class TaskController {
         return deferredResult;
     }
 
+    // Batch creation: [{"name": "...", "description": "...", "priority": "LOW"}, ...]
+    @PostMapping("/batch")
+    public DeferredResult<ResponseEntity<?>> createTasksBatch(@RequestBody List<Map<String, String>> taskRequests) {
+        DeferredResult<ResponseEntity<?>> deferredResult = new DeferredResult<>(60000L);
+
+        List<TaskService.TaskSpec> specs = new ArrayList<>(taskRequests.size());
+        try {
+            for (Map<String, String> taskRequest : taskRequests) {
+                specs.add(new TaskService.TaskSpec(taskRequest.get("name"), taskRequest.get("description"),
+                        parsePriority(taskRequest.get("priority"))));
+            }
+        } catch (IllegalArgumentException e) {
+            deferredResult.setResult(ResponseEntity.badRequest().body(e.getMessage()));
+            return deferredResult;
+        }
+
+        taskService.createTasksBatchAsync(specs)
+                .whenComplete((result, throwable) -> {
+                    if (throwable != null) {
+                        Throwable cause = throwable.getCause() != null ? throwable.getCause() : throwable;
+                        HttpStatus status = cause instanceof IllegalArgumentException
+                                ? HttpStatus.BAD_REQUEST
+                                : HttpStatus.INTERNAL_SERVER_ERROR;
+                        deferredResult.setErrorResult(
+                                ResponseEntity.status(status).body("Error creating tasks: " + cause.getMessage()));
+                    } else {
+                        deferredResult.setResult(ResponseEntity.status(HttpStatus.CREATED).body(result));
+                    }
+                });
+
+        return deferredResult;
+    }
+
     @GetMapping
     public ResponseEntity<List<Task>> getAllTasks() {
         return ResponseEntity.ok(taskService.getAllTasks());
     }
 
+    // Keyset pagination: pass the returned nextCursor to fetch the following page
+    @GetMapping(params = "limit")
+    public ResponseEntity<?> getTasksPage(@RequestParam int limit,
+                                          @RequestParam(required = false) String cursor) {
+        try {
+            return ResponseEntity.ok(taskService.getTasksPage(null, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Streaming mode: one JSON task per line, written as rows are read from the database
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllTasks() {
+        return streamTasks(null);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Task> getTaskById(@PathVariable String id) {
         try {
@@ -70,6 +146,22 @@ public class TaskController {
         return ResponseEntity.ok(taskService.getTasksByStatus(status));
     }
 
+    @GetMapping(value = "/status/{status}", params = "limit")
+    public ResponseEntity<?> getTasksPageByStatus(@PathVariable Task.TaskStatus status,
+                                                  @RequestParam int limit,
+                                                  @RequestParam(required = false) String cursor) {
+        try {
+            return ResponseEntity.ok(taskService.getTasksPage(status, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping(value = "/status/{status}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamTasksByStatus(@PathVariable Task.TaskStatus status) {
+        return streamTasks(status);
+    }
+
     // SCENARIO 8: Async task processing with CompletableFuture
     @PostMapping("/{id}/process")
     public DeferredResult<ResponseEntity<Task>> processTask(@PathVariable String id) {
@@ -84,6 +176,11 @@ public class TaskController {
                                     ResponseEntity.status(HttpStatus.CONFLICT)
                                             .body("Task already being processed: " + cause.getMessage())
                             );
+                        } else if (cause instanceof IllegalStateException) {
+                            deferredResult.setErrorResult(
+                                    ResponseEntity.status(HttpStatus.CONFLICT)
+                                            .body("Task not processable yet: " + cause.getMessage())
+                            );
                         } else {
                             deferredResult.setErrorResult(
                                     ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -98,20 +195,115 @@ public class TaskController {
         return deferredResult;
     }
 
+    // Delayed processing: {"notBefore": "2026-01-01T09:00:00"} or {"delaySeconds": 30}; {} clears the schedule
+    @PostMapping("/{id}/schedule")
+    public ResponseEntity<?> scheduleTask(@PathVariable String id,
+                                          @RequestBody(required = false) Map<String, String> schedule) {
+        try {
+            LocalDateTime notBefore = parseNotBefore(schedule != null ? schedule : Map.of());
+            return ResponseEntity.ok(taskService.scheduleTask(id, notBefore));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (ConcurrencyException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // Drain the pending backlog with at most maxInFlight tasks in flight; the response is the drain handle
     @PostMapping("/process-pending")
-    public ResponseEntity<String> processPendingTasks() {
-        taskService.processPendingTasksAsync();
-        return ResponseEntity.accepted().body("Processing of pending tasks has been initiated");
+    public ResponseEntity<PendingTaskDrain.Progress> processPendingTasks(
+            @RequestParam(defaultValue = "0") int maxInFlight) {
+        PendingTaskDrain drain = taskService.processPendingTasksAsync(maxInFlight);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/tasks/drains/" + drain.getId()))
+                .body(drain.getProgress());
     }
 
+    @GetMapping("/drains")
+    public ResponseEntity<List<PendingTaskDrain.Progress>> getDrains() {
+        List<PendingTaskDrain.Progress> progress = new ArrayList<>();
+        for (PendingTaskDrain drain : taskService.getDrains()) {
+            progress.add(drain.getProgress());
+        }
+        return ResponseEntity.ok(progress);
+    }
+
+    @GetMapping("/drains/{drainId}")
+    public ResponseEntity<PendingTaskDrain.Progress> getDrain(@PathVariable String drainId) {
+        return taskService.getDrain(drainId)
+                .map(drain -> ResponseEntity.ok(drain.getProgress()))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/drains/{drainId}/pause")
+    public ResponseEntity<?> pauseDrain(@PathVariable String drainId) {
+        return controlDrain(drainId, PendingTaskDrain::pause);
+    }
+
+    @PostMapping("/drains/{drainId}/resume")
+    public ResponseEntity<?> resumeDrain(@PathVariable String drainId) {
+        return controlDrain(drainId, PendingTaskDrain::resume);
+    }
+
+    // Stops submitting tasks; tasks already in flight run to the end
+    @PostMapping("/drains/{drainId}/abort")
+    public ResponseEntity<?> abortDrain(@PathVariable String drainId) {
+        return controlDrain(drainId, PendingTaskDrain::abort);
+    }
+
+    private ResponseEntity<?> controlDrain(String drainId, Predicate<PendingTaskDrain> action) {
+        Optional<PendingTaskDrain> drain = taskService.getDrain(drainId);
+        if (drain.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!action.test(drain.get())) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Drain is " + drain.get().getState() + ", the request does not apply");
+        }
+        return ResponseEntity.ok(drain.get().getProgress());
+    }
+
+    // SCENARIO 11: Non-blocking cooperative cancellation
     @PostMapping("/{id}/cancel")
-    public ResponseEntity<String> cancelTask(@PathVariable String id) {
-        boolean canceled = taskService.cancelTask(id);
-        if (canceled) {
-            return ResponseEntity.ok("Task has been canceled");
+    public DeferredResult<ResponseEntity<?>> cancelTask(@PathVariable String id,
+                                                        @RequestParam(defaultValue = "false") boolean wait) {
+        DeferredResult<ResponseEntity<?>> deferredResult = new DeferredResult<>(30000L);
+
+        Optional<CompletableFuture<Task>> cancellation = taskService.cancelTaskAsync(id);
+        if (cancellation.isEmpty()) {
+            deferredResult.setResult(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("No running task found with ID: " + id));
+        } else if (!wait) {
+            // Return right away; the worker stores the FAILED state on its own
+            deferredResult.setResult(ResponseEntity.accepted().body("Task cancellation has been requested"));
         } else {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body("No running task found with ID: " + id);
+            // Complete the request once the worker acknowledges, without holding a request thread
+            cancellation.get().whenComplete((task, throwable) -> {
+                if (throwable != null) {
+                    deferredResult.setErrorResult(
+                            ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                                    .body("Error cancelling task: " + throwable.getMessage()));
+                } else {
+                    deferredResult.setResult(ResponseEntity.ok(task));
+                }
+            });
+        }
+
+        return deferredResult;
+    }
+
+    // Bulk cancellation by status and optional name prefix, e.g. {"status":"PENDING","namePrefix":"Load-Test-"}
+    @PostMapping("/cancel")
+    public ResponseEntity<?> cancelTasks(@RequestBody(required = false) Map<String, String> filter) {
+        String status = filter != null ? filter.get("status") : null;
+        String namePrefix = filter != null ? filter.get("namePrefix") : null;
+        try {
+            Task.TaskStatus taskStatus = status == null ? null : Task.TaskStatus.valueOf(status);
+            return ResponseEntity.ok(taskService.cancelTasks(taskStatus, namePrefix));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
@@ -139,4 +331,66 @@ public class TaskController {
 
         return deferredResult;
     }
+
+    // Streaming report: rows are written in chunks while they are read from the database
+    @GetMapping("/report/stream")
+    public ResponseEntity<StreamingResponseBody> streamReport(
+            @RequestParam(defaultValue = "TEXT") ReportService.ReportFormat format) {
+        StreamingResponseBody body = out -> reportService.writeDetailedReport(format, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8"))
+                .body(body);
+    }
+
+    private Task.TaskPriority parsePriority(String priority) {
+        if (priority == null || priority.isEmpty()) {
+            return Task.TaskPriority.NORMAL;
+        }
+        try {
+            return Task.TaskPriority.valueOf(priority.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown priority: " + priority);
+        }
+    }
+
+    // notBefore (ISO local date-time) wins over delaySeconds; null when neither is given
+    private LocalDateTime parseNotBefore(Map<String, String> request) {
+        String notBefore = request.get("notBefore");
+        String delaySeconds = request.get("delaySeconds");
+        try {
+            if (notBefore != null && !notBefore.isEmpty()) {
+                return LocalDateTime.parse(notBefore);
+            }
+            if (delaySeconds != null && !delaySeconds.isEmpty()) {
+                return LocalDateTime.now().plusSeconds(Long.parseLong(delaySeconds));
+            }
+            return null;
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid schedule: " + e.getMessage());
+        }
+    }
+
+    private ResponseEntity<StreamingResponseBody> streamTasks(Task.TaskStatus status) {
+        StreamingResponseBody body = out -> {
+            int[] rows = {0};
+            try {
+                taskService.streamTasks(status, task -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(task));
+                        out.write('\n');
+                        if (++rows[0] % STREAM_FLUSH_ROWS == 0) {
+                            out.flush(); // Push a chunk to the client
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
 }
@@ -0,0 +1,323 @@
+package com.barmao.task.manager.event;
+
+import com.barmao.task.manager.config.JmsDestinations;
+import com.barmao.task.manager.service.loadtest.LatencyHistogram;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSException;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Session;
+import jakarta.jms.Topic;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Asynchronous, batching JMS publisher for task events.
+ *
+ * Callers only enqueue; a single publisher thread owns one cached connection,
+ * transacted session and anonymous producer, and commits up to flush-size
+ * messages per transaction. A batch is sent as soon as it is full or the
+ * linger time since its first message has passed. When the queue is full the
+ * overflow policy either blocks the caller or drops the event.
+ */
+@Component
+public class BatchingJmsPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchingJmsPublisher.class);
+
+    public enum OverflowPolicy {
+        BLOCK,
+        DROP
+    }
+
+    private final ConnectionFactory connectionFactory;
+    private final TaskEventMessageConverter messageConverter;
+    private final JmsDestinations destinations;
+    private final BlockingQueue<PendingMessage> queue;
+    private final int flushSize;
+    private final long lingerNanos;
+    private final OverflowPolicy overflowPolicy;
+
+    // Publish lag: time from enqueue until the batch containing the event is committed
+    private final LatencyHistogram publishLag = new LatencyHistogram();
+    private final LongAdder publishedCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder batchCount = new LongAdder();
+    private final Timer publishLagTimer;
+
+    // Owned by the publisher thread only
+    private Connection connection;
+    private Session session;
+    private MessageProducer producer;
+    private final Map<String, Topic> topics = new HashMap<>();
+
+    private volatile boolean running;
+    private Thread publisherThread;
+
+    @Autowired
+    public BatchingJmsPublisher(
+            ConnectionFactory connectionFactory,
+            TaskEventMessageConverter messageConverter,
+            JmsDestinations destinations,
+            MeterRegistry meterRegistry,
+            @Value("${task.manager.jms.publisher.queue-capacity:10000}") int queueCapacity,
+            @Value("${task.manager.jms.publisher.flush-size:100}") int flushSize,
+            @Value("${task.manager.jms.publisher.linger-ms:5}") long lingerMs,
+            @Value("${task.manager.jms.publisher.overflow-policy:BLOCK}") OverflowPolicy overflowPolicy) {
+        this.connectionFactory = connectionFactory;
+        this.messageConverter = messageConverter;
+        this.destinations = destinations;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.flushSize = flushSize;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMs);
+        this.overflowPolicy = overflowPolicy;
+
+        this.publishLagTimer = Timer.builder("task.events.publish.lag")
+                .description("Time from enqueue until the JMS transaction containing the event commits")
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry);
+        Gauge.builder("task.events.publish.queued", queue, BlockingQueue::size)
+                .description("Events waiting to be published")
+                .register(meterRegistry);
+        FunctionCounter.builder("task.events.published", publishedCount, LongAdder::sum)
+                .description("Events committed to JMS")
+                .register(meterRegistry);
+        FunctionCounter.builder("task.events.dropped", droppedCount, LongAdder::sum)
+                .description("Events dropped because the publish queue was full")
+                .register(meterRegistry);
+        FunctionCounter.builder("task.events.failed", failedCount, LongAdder::sum)
+                .description("Events lost because their batch could not be sent")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        publisherThread = new Thread(this::runPublisher, "JmsPublisher");
+        publisherThread.setDaemon(true);
+        publisherThread.start();
+    }
+
+    /**
+     * Stop accepting work, flush what is queued and close the JMS resources
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        publisherThread.join(TimeUnit.SECONDS.toMillis(10));
+        if (publisherThread.isAlive()) {
+            logger.warn("JMS publisher did not drain in time, {} events not published", queue.size());
+            publisherThread.interrupt();
+        }
+    }
+
+    /**
+     * Enqueue an event for publishing to the given topic.
+     *
+     * @return false if the event was dropped (DROP policy, queue full, or publisher stopped)
+     */
+    public boolean publish(String topic, Object payload) {
+        PendingMessage message = new PendingMessage(topic, payload, System.nanoTime());
+        if (!running) {
+            droppedCount.increment();
+            return false;
+        }
+        if (overflowPolicy == OverflowPolicy.DROP) {
+            if (!queue.offer(message)) {
+                droppedCount.increment();
+                logger.debug("Publish queue full, dropped event for topic {}", topic);
+                return false;
+            }
+            return true;
+        }
+        try {
+            queue.put(message);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            droppedCount.increment();
+            return false;
+        }
+    }
+
+    private void runPublisher() {
+        List<PendingMessage> batch = new ArrayList<>(flushSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                PendingMessage first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fillBatch(batch, first.enqueuedAtNanos + lingerNanos);
+                sendBatch(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeResources();
+        }
+    }
+
+    // Collect more messages until the batch is full or the first message has lingered long enough
+    private void fillBatch(List<PendingMessage> batch, long deadlineNanos) throws InterruptedException {
+        while (batch.size() < flushSize) {
+            if (queue.drainTo(batch, flushSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadlineNanos - System.nanoTime();
+            if (remaining <= 0 || !running) {
+                return;
+            }
+            PendingMessage next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void sendBatch(List<PendingMessage> batch) {
+        // One retry on a fresh connection - the cached one may have gone stale
+        for (int attempt = 1; attempt <= 2; attempt++) {
+            try {
+                ensureConnected();
+                for (PendingMessage message : batch) {
+                    producer.send(topic(message.topic), messageConverter.toMessage(message.payload, session, message.topic));
+                }
+                session.commit();
+                recordPublished(batch);
+                return;
+            } catch (JMSException | RuntimeException e) {
+                logger.warn("Failed to publish batch of {} events (attempt {}): {}",
+                        batch.size(), attempt, e.getMessage());
+                closeResources();
+            }
+        }
+        failedCount.add(batch.size());
+        logger.error("Dropped batch of {} events after retry", batch.size());
+    }
+
+    private void recordPublished(List<PendingMessage> batch) {
+        long now = System.nanoTime();
+        for (PendingMessage message : batch) {
+            long lag = now - message.enqueuedAtNanos;
+            publishLag.recordNanos(lag);
+            publishLagTimer.record(lag, TimeUnit.NANOSECONDS);
+        }
+        publishedCount.add(batch.size());
+        batchCount.increment();
+    }
+
+    private void ensureConnected() throws JMSException {
+        if (session != null) {
+            return;
+        }
+        connection = connectionFactory.createConnection();
+        connection.start();
+        session = connection.createSession(true, Session.SESSION_TRANSACTED);
+        producer = session.createProducer(null);
+    }
+
+    private Topic topic(String name) throws JMSException {
+        Topic topic = topics.get(name);
+        if (topic == null) {
+            topic = session.createTopic(destinations.topicName(name));
+            topics.put(name, topic);
+        }
+        return topic;
+    }
+
+    private void closeResources() {
+        topics.clear();
+        session = null;
+        producer = null;
+        if (connection != null) {
+            try {
+                connection.close(); // Closes the session and producer as well
+            } catch (JMSException e) {
+                logger.debug("Error closing JMS connection: {}", e.getMessage());
+            }
+            connection = null;
+        }
+    }
+
+    /**
+     * Get publishing statistics
+     */
+    public PublisherStatistics getStatistics() {
+        return new PublisherStatistics(
+                publishedCount.sum(),
+                droppedCount.sum(),
+                failedCount.sum(),
+                batchCount.sum(),
+                queue.size(),
+                overflowPolicy,
+                publishLag.snapshot().toSummary());
+    }
+
+    private static class PendingMessage {
+        private final String topic;
+        private final Object payload;
+        private final long enqueuedAtNanos;
+
+        PendingMessage(String topic, Object payload, long enqueuedAtNanos) {
+            this.topic = topic;
+            this.payload = payload;
+            this.enqueuedAtNanos = enqueuedAtNanos;
+        }
+    }
+
+    // Data class for publisher statistics
+    public static class PublisherStatistics {
+        private final long published;
+        private final long dropped;
+        private final long failed;
+        private final long batches;
+        private final int queued;
+        private final OverflowPolicy overflowPolicy;
+        private final LatencyHistogram.LatencySummary publishLag;
+
+        public PublisherStatistics(long published, long dropped, long failed, long batches, int queued,
+                                   OverflowPolicy overflowPolicy, LatencyHistogram.LatencySummary publishLag) {
+            this.published = published;
+            this.dropped = dropped;
+            this.failed = failed;
+            this.batches = batches;
+            this.queued = queued;
+            this.overflowPolicy = overflowPolicy;
+            this.publishLag = publishLag;
+        }
+
+        public long getPublished() { return published; }
+        public long getDropped() { return dropped; }
+        public long getFailed() { return failed; }
+        public long getBatches() { return batches; }
+        public int getQueued() { return queued; }
+        public double getAverageBatchSize() { return batches > 0 ? (double) published / batches : 0; }
+        public OverflowPolicy getOverflowPolicy() { return overflowPolicy; }
+        public LatencyHistogram.LatencySummary getPublishLag() { return publishLag; }
+    }
+}
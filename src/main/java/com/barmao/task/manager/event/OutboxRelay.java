@@ -0,0 +1,205 @@
+package com.barmao.task.manager.event;
+
+import com.barmao.task.manager.config.JmsConfig;
+import com.barmao.task.manager.config.JmsDestinations;
+import com.barmao.task.manager.event.TaskEventMessageConverter.WireFormat;
+import com.barmao.task.manager.model.OutboxEvent;
+import com.barmao.task.manager.model.OutboxRelayLease;
+import com.barmao.task.manager.repository.OutboxEventRepository;
+import com.barmao.task.manager.repository.OutboxRelayLeaseRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Session;
+import jakarta.jms.TextMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jms.JmsException;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drains the task outbox to ActiveMQ.
+ *
+ * Events are read oldest first and sent in one transacted JMS session per
+ * batch; rows are deleted only after the JMS commit. A crash between the two
+ * re-sends the batch, so delivery is at-least-once and consumers must tolerate
+ * duplicates. If the broker is unavailable the rows simply stay in the table
+ * and the next run picks them up.
+ *
+ * Rows are sent in ID order, but IDs are allocated before commit: a
+ * transaction can commit a lower ID after a higher one was already relayed.
+ * There is no global order. What holds is per-task order: each of a task's
+ * events is written after the transaction of the previous one committed, so
+ * it gets a higher ID and is relayed after it (duplicates aside).
+ *
+ * Only the node holding the relay lease sends, so nodes never relay the same
+ * rows and per-task order holds across nodes. The holder renews the lease
+ * before every batch; if it dies, another node takes over once it expires.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+    private static final String LEASE = "outbox-relay";
+
+    private final OutboxEventRepository outboxRepository;
+    private final OutboxRelayLeaseRepository leaseRepository;
+    private final TaskEventMessageConverter messageConverter;
+    private final JmsDestinations destinations;
+    private final JmsTemplate relayTemplate;
+    private final Timer relayLagTimer;
+    private final LongAdder relayedCount = new LongAdder();
+    private final String owner = UUID.randomUUID().toString();
+
+    // Updated by the relay so scrapes never count the table; NaN on nodes not relaying
+    private volatile double backlog = Double.NaN;
+
+    @Value("${task.manager.outbox.relay-batch-size:500}")
+    private int batchSize;
+
+    @Value("${task.manager.outbox.relay-lease-ms:10000}")
+    private long leaseMs;
+
+    @Value("${task.manager.events.jms-delivery:OUTBOX}")
+    private TaskEventPublisher.JmsDelivery jmsDelivery;
+
+    @Autowired
+    public OutboxRelay(OutboxEventRepository outboxRepository, OutboxRelayLeaseRepository leaseRepository,
+                       ConnectionFactory connectionFactory, TaskEventMessageConverter messageConverter,
+                       JmsDestinations destinations, MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.leaseRepository = leaseRepository;
+        this.messageConverter = messageConverter;
+        this.destinations = destinations;
+
+        // Transacted so a batch reaches the broker as a unit
+        this.relayTemplate = new JmsTemplate(connectionFactory);
+        this.relayTemplate.setPubSubDomain(true);
+        this.relayTemplate.setSessionTransacted(true);
+
+        this.relayLagTimer = Timer.builder("task.outbox.relay.lag")
+                .description("Time from outbox write until the event was committed to JMS")
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofMinutes(5))
+                .register(meterRegistry);
+        FunctionCounter.builder("task.outbox.relayed", relayedCount, LongAdder::sum)
+                .description("Outbox events relayed to JMS")
+                .register(meterRegistry);
+        Gauge.builder("task.outbox.backlog", this, relay -> relay.backlog)
+                .description("Outbox events not yet relayed, as of the last relay run on the relaying node")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${task.manager.outbox.relay-interval-ms:200}")
+    public void relay() {
+        if (jmsDelivery != TaskEventPublisher.JmsDelivery.OUTBOX) {
+            return;
+        }
+
+        int relayed = 0;
+        boolean drained = false;
+        try {
+            List<OutboxEvent> batch;
+            do {
+                if (!holdLease()) {
+                    backlog = Double.NaN; // Reported by the node that relays
+                    return;
+                }
+                batch = outboxRepository.findOldest(PageRequest.of(0, batchSize));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                send(batch);
+                outboxRepository.deleteAllByIdInBatch(ids(batch));
+                recordRelayed(batch);
+                relayed += batch.size();
+            } while (batch.size() == batchSize);
+            drained = true;
+        } catch (JmsException e) {
+            // Rows stay in the outbox; retried on the next run
+            logger.warn("Outbox relay paused after {} events: {}", relayed, e.getMessage());
+        }
+        // Count the table only when the relay stopped short of the end
+        backlog = drained ? 0 : outboxRepository.count();
+
+        if (relayed > 0) {
+            logger.debug("Relayed {} outbox events to JMS", relayed);
+        }
+    }
+
+    // Renew or take over the lease; the first node to run creates it
+    private boolean holdLease() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(leaseMs, ChronoUnit.MILLIS);
+        if (leaseRepository.acquire(LEASE, owner, now, expiresAt) == 1) {
+            return true;
+        }
+        if (leaseRepository.existsById(LEASE)) {
+            return false;
+        }
+        try {
+            leaseRepository.saveAndFlush(new OutboxRelayLease(LEASE, owner, expiresAt));
+            return true;
+        } catch (DataAccessException e) {
+            return false; // Another node created it first
+        }
+    }
+
+    private void send(List<OutboxEvent> batch) {
+        relayTemplate.execute(session -> {
+            try (MessageProducer producer = session.createProducer(null)) {
+                for (OutboxEvent event : batch) {
+                    producer.send(session.createTopic(destinations.topicName(event.getTopic())),
+                            toMessage(session, event));
+                }
+            }
+            session.commit();
+            return null;
+        }, true);
+    }
+
+    private Message toMessage(Session session, OutboxEvent event) throws JMSException {
+        if (event.getFormat() == WireFormat.BINARY) {
+            return messageConverter.createBinaryMessage(session, event.getPayload());
+        }
+        TextMessage message = session.createTextMessage(new String(event.getPayload(), StandardCharsets.UTF_8));
+        message.setStringProperty(JmsConfig.TYPE_ID_PROPERTY, event.getEventType());
+        return message;
+    }
+
+    private void recordRelayed(List<OutboxEvent> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxEvent event : batch) {
+            relayLagTimer.record(Duration.between(event.getCreatedAt(), now));
+        }
+        relayedCount.add(batch.size());
+    }
+
+    private List<Long> ids(List<OutboxEvent> batch) {
+        List<Long> ids = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            ids.add(event.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,278 @@
+package com.barmao.task.manager.event;
+
+import com.barmao.task.manager.model.Task;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Compact binary encoding of {@link TaskEvents}.
+ *
+ * Layout (version 2):
+ * <pre>
+ * version    1 byte
+ * type       1 byte   0 = created, 1 = processing started, 2 = completed
+ * flags      1 byte   bit 0: task ID is a binary UUID, bit 1: timestamp present
+ * taskId     16 bytes (UUID, big-endian) or string
+ * taskName   string
+ * status     1 byte   TaskStatus ordinal + 1, 0 = null
+ * timestamp  8 bytes  epoch millis, the local date-time read as UTC (if present)
+ * created:   description string, creationLatencyMs varint
+ * started:   attemptNumber varint
+ * completed: successful 1 byte, progress 8 bytes (IEEE 754), processingTimeMs varint,
+ *            attemptNumber varint
+ * </pre>
+ * Version 1 is still decoded; it has no completed attemptNumber, which decodes as 1.
+ * Strings are a varint of (UTF-8 length + 1) followed by the bytes, 0 = null.
+ * Varints are zig-zag encoded LEB128. Timestamps keep millisecond precision.
+ */
+public final class TaskEventBinaryCodec {
+
+    public static final byte VERSION = 2;
+    private static final byte VERSION_1 = 1;
+
+    private static final byte TYPE_CREATED = 0;
+    private static final byte TYPE_STARTED = 1;
+    private static final byte TYPE_COMPLETED = 2;
+
+    private static final int FLAG_UUID_ID = 1;
+    private static final int FLAG_TIMESTAMP = 1 << 1;
+
+    private static final Task.TaskStatus[] STATUSES = Task.TaskStatus.values();
+
+    private TaskEventBinaryCodec() {
+    }
+
+    public static byte[] encode(TaskEvents.TaskEvent event) {
+        Writer out = new Writer(64);
+        out.writeByte(VERSION);
+        out.writeByte(typeOf(event));
+
+        long[] uuid = parseUuid(event.getTaskId());
+        int flags = (uuid != null ? FLAG_UUID_ID : 0) | (event.getTimestamp() != null ? FLAG_TIMESTAMP : 0);
+        out.writeByte(flags);
+
+        if (uuid != null) {
+            out.writeLong(uuid[0]);
+            out.writeLong(uuid[1]);
+        } else {
+            out.writeString(event.getTaskId());
+        }
+        out.writeString(event.getTaskName());
+        out.writeByte(event.getStatus() == null ? 0 : Task.TaskStatus.valueOf(event.getStatus()).ordinal() + 1);
+        if (event.getTimestamp() != null) {
+            out.writeLong(event.getTimestamp().toInstant(ZoneOffset.UTC).toEpochMilli());
+        }
+
+        if (event instanceof TaskEvents.TaskCreatedEvent created) {
+            out.writeString(created.getDescription());
+            out.writeVarLong(created.getCreationLatencyMs());
+        } else if (event instanceof TaskEvents.TaskProcessingStartedEvent started) {
+            out.writeVarLong(started.getAttemptNumber());
+        } else {
+            TaskEvents.TaskCompletedEvent completed = (TaskEvents.TaskCompletedEvent) event;
+            out.writeByte(completed.isSuccessful() ? 1 : 0);
+            out.writeLong(Double.doubleToRawLongBits(completed.getProgress()));
+            out.writeVarLong(completed.getProcessingTimeMs());
+            out.writeVarLong(completed.getAttemptNumber());
+        }
+        return out.toByteArray();
+    }
+
+    public static TaskEvents.TaskEvent decode(byte[] data) {
+        Reader in = new Reader(data);
+        int version = in.readByte();
+        if (version != VERSION && version != VERSION_1) {
+            throw new IllegalArgumentException("Unsupported task event encoding version: " + version);
+        }
+        int type = in.readByte();
+        int flags = in.readByte();
+
+        TaskEvents.TaskEvent event = switch (type) {
+            case TYPE_CREATED -> new TaskEvents.TaskCreatedEvent();
+            case TYPE_STARTED -> new TaskEvents.TaskProcessingStartedEvent();
+            case TYPE_COMPLETED -> new TaskEvents.TaskCompletedEvent();
+            default -> throw new IllegalArgumentException("Unknown task event type: " + type);
+        };
+
+        if ((flags & FLAG_UUID_ID) != 0) {
+            event.setTaskId(formatUuid(in.readLong(), in.readLong()));
+        } else {
+            event.setTaskId(in.readString());
+        }
+        event.setTaskName(in.readString());
+        int status = in.readByte();
+        event.setStatus(status == 0 ? null : STATUSES[status - 1].name());
+        event.setTimestamp((flags & FLAG_TIMESTAMP) != 0
+                ? LocalDateTime.ofInstant(Instant.ofEpochMilli(in.readLong()), ZoneOffset.UTC)
+                : null);
+
+        if (event instanceof TaskEvents.TaskCreatedEvent created) {
+            created.setDescription(in.readString());
+            created.setCreationLatencyMs(in.readVarLong());
+        } else if (event instanceof TaskEvents.TaskProcessingStartedEvent started) {
+            started.setAttemptNumber((int) in.readVarLong());
+        } else {
+            TaskEvents.TaskCompletedEvent completed = (TaskEvents.TaskCompletedEvent) event;
+            completed.setSuccessful(in.readByte() != 0);
+            completed.setProgress(Double.longBitsToDouble(in.readLong()));
+            completed.setProcessingTimeMs(in.readVarLong());
+            completed.setAttemptNumber(version == VERSION_1 ? 1 : (int) in.readVarLong());
+        }
+        return event;
+    }
+
+    private static byte typeOf(TaskEvents.TaskEvent event) {
+        if (event instanceof TaskEvents.TaskCreatedEvent) {
+            return TYPE_CREATED;
+        } else if (event instanceof TaskEvents.TaskProcessingStartedEvent) {
+            return TYPE_STARTED;
+        } else if (event instanceof TaskEvents.TaskCompletedEvent) {
+            return TYPE_COMPLETED;
+        }
+        throw new IllegalArgumentException("Unsupported task event: " + event.getClass().getName());
+    }
+
+    // Parses only the canonical lower-case form, so decoding reproduces the same string
+    private static long[] parseUuid(String value) {
+        if (value == null || value.length() != 36) {
+            return null;
+        }
+        long[] bits = new long[2];
+        int nibble = 0;
+        for (int i = 0; i < 36; i++) {
+            char c = value.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return null;
+                }
+                continue;
+            }
+            int digit;
+            if (c >= '0' && c <= '9') {
+                digit = c - '0';
+            } else if (c >= 'a' && c <= 'f') {
+                digit = c - 'a' + 10;
+            } else {
+                return null;
+            }
+            bits[nibble >> 4] = (bits[nibble >> 4] << 4) | digit;
+            nibble++;
+        }
+        return bits;
+    }
+
+    private static String formatUuid(long msb, long lsb) {
+        return new UUID(msb, lsb).toString();
+    }
+
+    private static final class Writer {
+        private byte[] buffer;
+        private int position;
+
+        Writer(int initialCapacity) {
+            this.buffer = new byte[initialCapacity];
+        }
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[position++] = (byte) value;
+        }
+
+        void writeLong(long value) {
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (value >>> shift);
+            }
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            long zigZag = (value << 1) ^ (value >> 63);
+            while ((zigZag & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((zigZag & 0x7F) | 0x80);
+                zigZag >>>= 7;
+            }
+            buffer[position++] = (byte) zigZag;
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length + 1L);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+
+        private void ensureCapacity(int needed) {
+            if (position + needed > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + needed));
+            }
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        int readByte() {
+            checkAvailable(1);
+            return data[position++] & 0xFF;
+        }
+
+        long readLong() {
+            checkAvailable(8);
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (data[position++] & 0xFF);
+            }
+            return value;
+        }
+
+        long readVarLong() {
+            long zigZag = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                zigZag |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return (zigZag >>> 1) ^ -(zigZag & 1);
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+
+        String readString() {
+            long length = readVarLong();
+            if (length == 0) {
+                return null;
+            }
+            int size = (int) (length - 1);
+            checkAvailable(size);
+            String value = new String(data, position, size, StandardCharsets.UTF_8);
+            position += size;
+            return value;
+        }
+
+        private void checkAvailable(int count) {
+            if (count < 0 || position + count > data.length) {
+                throw new IllegalArgumentException("Truncated task event");
+            }
+        }
+    }
+}
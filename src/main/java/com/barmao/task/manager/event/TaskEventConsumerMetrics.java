@@ -0,0 +1,63 @@
+package com.barmao.task.manager.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-listener JMS consumer meters: task.events.consumed{listener} counts
+ * messages handled and task.events.consume.lag{listener} measures the time
+ * from the JMS send timestamp until the listener ran. Lag across nodes
+ * includes their clock difference.
+ */
+@Component
+public class TaskEventConsumerMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ListenerMeters> meters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TaskEventConsumerMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void record(String listener, long jmsTimestamp) {
+        ListenerMeters listenerMeters = meters.computeIfAbsent(listener, this::createMeters);
+        listenerMeters.consumed.increment();
+        if (jmsTimestamp > 0) {
+            long lag = Math.max(0, System.currentTimeMillis() - jmsTimestamp);
+            listenerMeters.lag.record(lag, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private ListenerMeters createMeters(String listener) {
+        Counter consumed = Counter.builder("task.events.consumed")
+                .description("Events handled by a JMS listener")
+                .tag("listener", listener)
+                .register(meterRegistry);
+        Timer lag = Timer.builder("task.events.consume.lag")
+                .description("Time from JMS send until the listener handled the event")
+                .tag("listener", listener)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofMinutes(5))
+                .register(meterRegistry);
+        return new ListenerMeters(consumed, lag);
+    }
+
+    private static class ListenerMeters {
+        private final Counter consumed;
+        private final Timer lag;
+
+        ListenerMeters(Counter consumed, Timer lag) {
+            this.consumed = consumed;
+            this.lag = lag;
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package com.barmao.task.manager.event;
 
 import com.barmao.task.manager.model.Task;
+import com.barmao.task.manager.service.TaskCache;
 import com.barmao.task.manager.service.loadtest.TaskMetricsService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.event.EventListener;
 import org.springframework.jms.annotation.JmsListener;
+import org.springframework.jms.support.JmsHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 
 /**
@@ -18,10 +21,15 @@ public class TaskEventListener {
 
     private static final Logger logger = LoggerFactory.getLogger(TaskEventListener.class);
     private final TaskMetricsService metricsService;
+    private final TaskCache taskCache;
+    private final TaskEventConsumerMetrics consumerMetrics;
 
     @Autowired
-    public TaskEventListener(TaskMetricsService metricsService) {
+    public TaskEventListener(TaskMetricsService metricsService, TaskCache taskCache,
+                             TaskEventConsumerMetrics consumerMetrics) {
         this.metricsService = metricsService;
+        this.taskCache = taskCache;
+        this.consumerMetrics = consumerMetrics;
     }
 
     //
@@ -33,13 +41,14 @@ public class TaskEventListener {
         logger.debug("Received Spring application event: TaskCreatedEvent for task {}", event.getTaskId());
 
         Task task = createTaskFromEvent(event);
-        metricsService.recordTaskCreated(task);
+        metricsService.recordTaskCreated(task, event.getCreationLatencyMs());
     }
 
     @EventListener
     public void handleTaskProcessingStartedEvent(TaskEvents.TaskProcessingStartedEvent event) {
         logger.debug("Received Spring application event: TaskProcessingStartedEvent for task {}", event.getTaskId());
 
+        taskCache.invalidate(event.getTaskId());
         Task task = createTaskFromEvent(event);
         metricsService.recordTaskProcessingStarted(task);
     }
@@ -48,7 +57,9 @@ public class TaskEventListener {
     public void handleTaskCompletedEvent(TaskEvents.TaskCompletedEvent event) {
         logger.debug("Received Spring application event: TaskCompletedEvent for task {}", event.getTaskId());
 
+        taskCache.invalidate(event.getTaskId());
         Task task = createTaskFromEvent(event);
+        task.setAttempts(event.getAttemptNumber());
         metricsService.recordTaskCompleted(task, event.getProcessingTimeMs());
     }
 
@@ -56,22 +67,33 @@ public class TaskEventListener {
     // JMS Listeners for ActiveMQ Messages
     //
 
-    @JmsListener(destination = "task-created", containerFactory = "topicListenerFactory")
-    public void receiveTaskCreatedMessage(TaskEvents.TaskCreatedEvent event) {
+    // Work-sharing consumer: with a shared or virtual-topic consumer mode each
+    // event is handled once across all listener threads and nodes
+    @JmsListener(destination = "task-created", containerFactory = "eventConsumerListenerFactory",
+            subscription = "task-created-consumers")
+    public void receiveTaskCreatedMessage(TaskEvents.TaskCreatedEvent event,
+                                          @Header(JmsHeaders.TIMESTAMP) long sentAt) {
         logger.debug("Received JMS message: TaskCreatedEvent for task {}", event.getTaskId());
+        consumerMetrics.record("task-created", sentAt);
         // Process external message - useful for integrations with other systems
     }
 
+    // Cache invalidation stays a broadcast - every node must drop its own copy
     @JmsListener(destination = "task-processing", containerFactory = "topicListenerFactory")
-    public void receiveTaskProcessingMessage(TaskEvents.TaskProcessingStartedEvent event) {
+    public void receiveTaskProcessingMessage(TaskEvents.TaskProcessingStartedEvent event,
+                                             @Header(JmsHeaders.TIMESTAMP) long sentAt) {
         logger.debug("Received JMS message: TaskProcessingStartedEvent for task {}", event.getTaskId());
-        // Process external message
+        consumerMetrics.record("task-processing-invalidation", sentAt);
+        // Changes made by other nodes invalidate this node's cached copy
+        taskCache.invalidate(event.getTaskId());
     }
 
     @JmsListener(destination = "task-completed", containerFactory = "topicListenerFactory")
-    public void receiveTaskCompletedMessage(TaskEvents.TaskCompletedEvent event) {
+    public void receiveTaskCompletedMessage(TaskEvents.TaskCompletedEvent event,
+                                            @Header(JmsHeaders.TIMESTAMP) long sentAt) {
         logger.debug("Received JMS message: TaskCompletedEvent for task {}", event.getTaskId());
-        // Process external message
+        consumerMetrics.record("task-completed-invalidation", sentAt);
+        taskCache.invalidate(event.getTaskId());
     }
 
     // Helper method to create a Task object from event data
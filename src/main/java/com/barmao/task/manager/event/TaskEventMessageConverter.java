@@ -0,0 +1,76 @@
+package com.barmao.task.manager.event;
+
+import jakarta.jms.BytesMessage;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.Session;
+import org.springframework.jms.support.converter.MessageConversionException;
+import org.springframework.jms.support.converter.MessageConverter;
+
+import java.util.Set;
+
+/**
+ * Message converter that writes task events either as JSON (via the delegate)
+ * or in the compact {@link TaskEventBinaryCodec} format, chosen per topic.
+ *
+ * Binary messages are BytesMessages with JMS type {@link #BINARY_JMS_TYPE};
+ * reading accepts both formats, so listeners keep working while topics are
+ * switched. Topics not listed as binary stay JSON for external consumers.
+ */
+public class TaskEventMessageConverter implements MessageConverter {
+
+    public static final String BINARY_JMS_TYPE = "task-event-binary";
+
+    public enum WireFormat {
+        JSON,
+        BINARY
+    }
+
+    private final MessageConverter jsonConverter;
+    private final Set<String> binaryTopics;
+
+    public TaskEventMessageConverter(MessageConverter jsonConverter, Set<String> binaryTopics) {
+        this.jsonConverter = jsonConverter;
+        this.binaryTopics = Set.copyOf(binaryTopics);
+    }
+
+    public WireFormat formatFor(String topic) {
+        return binaryTopics.contains(topic) ? WireFormat.BINARY : WireFormat.JSON;
+    }
+
+    /**
+     * Convert an event in the format configured for the destination topic
+     */
+    public Message toMessage(Object object, Session session, String topic) throws JMSException {
+        if (formatFor(topic) == WireFormat.BINARY && object instanceof TaskEvents.TaskEvent event) {
+            return createBinaryMessage(session, TaskEventBinaryCodec.encode(event));
+        }
+        return jsonConverter.toMessage(object, session);
+    }
+
+    public BytesMessage createBinaryMessage(Session session, byte[] body) throws JMSException {
+        BytesMessage message = session.createBytesMessage();
+        message.setJMSType(BINARY_JMS_TYPE);
+        message.writeBytes(body);
+        return message;
+    }
+
+    @Override
+    public Message toMessage(Object object, Session session) throws JMSException {
+        return jsonConverter.toMessage(object, session);
+    }
+
+    @Override
+    public Object fromMessage(Message message) throws JMSException {
+        if (message instanceof BytesMessage bytesMessage && BINARY_JMS_TYPE.equals(message.getJMSType())) {
+            byte[] body = new byte[(int) bytesMessage.getBodyLength()];
+            bytesMessage.readBytes(body);
+            try {
+                return TaskEventBinaryCodec.decode(body);
+            } catch (IllegalArgumentException e) {
+                throw new MessageConversionException("Invalid binary task event", e);
+            }
+        }
+        return jsonConverter.fromMessage(message);
+    }
+}
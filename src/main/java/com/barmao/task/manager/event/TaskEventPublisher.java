@@ -4,14 +4,25 @@ import com.barmao.task.manager.model.Task;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.jms.JmsException;
-import org.springframework.jms.core.JmsTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Publisher for task-related events using both Spring's ApplicationEventPublisher
  * and ActiveMQ for broader integration capabilities.
+ *
+ * JMS messages are either written to the {@link TaskOutbox} (OUTBOX, the
+ * default - callers must be inside the transaction that stores the task change)
+ * or handed to the {@link BatchingJmsPublisher} (DIRECT - faster, but lost if
+ * the broker fails). Only the outbox row is written inside the transaction:
+ * Spring events and DIRECT sends go out once it commits, so listeners never see
+ * a change that is rolled back and the transaction never waits on the broker.
  */
 @Component
 public class TaskEventPublisher {
@@ -22,61 +33,110 @@ public class TaskEventPublisher {
     private static final String TASK_PROCESSING_TOPIC = "task-processing";
     private static final String TASK_COMPLETED_TOPIC = "task-completed";
 
+    public enum JmsDelivery {
+        OUTBOX,
+        DIRECT
+    }
+
     private final ApplicationEventPublisher eventPublisher;
-    private final JmsTemplate jmsTemplate;
+    private final BatchingJmsPublisher jmsPublisher;
+    private final TaskOutbox outbox;
+
+    @Value("${task.manager.events.jms-delivery:OUTBOX}")
+    private JmsDelivery jmsDelivery;
 
     @Autowired
-    public TaskEventPublisher(ApplicationEventPublisher eventPublisher, JmsTemplate jmsTemplate) {
+    public TaskEventPublisher(ApplicationEventPublisher eventPublisher, BatchingJmsPublisher jmsPublisher,
+                              TaskOutbox outbox) {
         this.eventPublisher = eventPublisher;
-        this.jmsTemplate = jmsTemplate;
+        this.jmsPublisher = jmsPublisher;
+        this.outbox = outbox;
     }
 
-    public void publishTaskCreatedEvent(Task task) {
+    public void publishTaskCreatedEvent(Task task, long creationLatencyMs) {
         // Create the event
-        TaskEvents.TaskCreatedEvent event = new TaskEvents.TaskCreatedEvent(task);
-
-        // Publish to Spring's event system (for internal app use)
-        eventPublisher.publishEvent(event);
-
-        // Publish to ActiveMQ topics (for external integrations)
-        try {
-            jmsTemplate.convertAndSend(TASK_CREATED_TOPIC, event);
-            logger.debug("Published TaskCreatedEvent to JMS for task: {}", task.getId());
-        } catch (JmsException e) {
-            // Log but don't fail if JMS publishing fails
-            logger.error("Failed to publish TaskCreatedEvent to JMS: {}", e.getMessage());
+        TaskEvents.TaskCreatedEvent event = new TaskEvents.TaskCreatedEvent(task, creationLatencyMs);
+
+        // Publish to Spring's event system (for internal app use) and to
+        // ActiveMQ topics (for external integrations)
+        publish(TASK_CREATED_TOPIC, List.of(event));
+        logger.debug("Queued TaskCreatedEvent for JMS for task: {}", task.getId());
+    }
+
+    public void publishTaskCreatedEvents(List<Task> tasks, long creationLatencyMs) {
+        List<TaskEvents.TaskCreatedEvent> events = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            events.add(new TaskEvents.TaskCreatedEvent(task, creationLatencyMs));
         }
+
+        publish(TASK_CREATED_TOPIC, events);
+        logger.debug("Queued {} TaskCreatedEvents for JMS", tasks.size());
     }
 
     public void publishTaskProcessingStartedEvent(Task task) {
         // Create the event
         TaskEvents.TaskProcessingStartedEvent event = new TaskEvents.TaskProcessingStartedEvent(task);
 
-        // Publish to Spring's event system
-        eventPublisher.publishEvent(event);
-
-        // Publish to ActiveMQ topics
-        try {
-            jmsTemplate.convertAndSend(TASK_PROCESSING_TOPIC, event);
-            logger.debug("Published TaskProcessingStartedEvent to JMS for task: {}", task.getId());
-        } catch (JmsException e) {
-            logger.error("Failed to publish TaskProcessingStartedEvent to JMS: {}", e.getMessage());
-        }
+        // Publish to Spring's event system and ActiveMQ topics
+        publish(TASK_PROCESSING_TOPIC, List.of(event));
+        logger.debug("Queued TaskProcessingStartedEvent for JMS for task: {}", task.getId());
     }
 
     public void publishTaskCompletedEvent(Task task, long processingTimeMs) {
         // Create the event
         TaskEvents.TaskCompletedEvent event = new TaskEvents.TaskCompletedEvent(task, processingTimeMs);
 
-        // Publish to Spring's event system
-        eventPublisher.publishEvent(event);
+        // Publish to Spring's event system and ActiveMQ topics
+        publish(TASK_COMPLETED_TOPIC, List.of(event));
+        logger.debug("Queued TaskCompletedEvent for JMS for task: {}", task.getId());
+    }
+
+    /**
+     * Completion events for queued tasks cancelled before a worker picked them up.
+     * They carry attempt number 0: no processing attempt ended, so they resolve
+     * waiters without counting as processed tasks.
+     */
+    public void publishQueuedTasksCancelledEvents(List<Task> tasks) {
+        List<TaskEvents.TaskCompletedEvent> events = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            TaskEvents.TaskCompletedEvent event = new TaskEvents.TaskCompletedEvent(task, 0);
+            event.setAttemptNumber(0);
+            events.add(event);
+        }
+
+        publish(TASK_COMPLETED_TOPIC, events);
+        logger.debug("Queued {} TaskCompletedEvents for JMS", tasks.size());
+    }
+
+    private void publish(String topic, List<? extends TaskEvents.TaskEvent> events) {
+        if (jmsDelivery == JmsDelivery.OUTBOX) {
+            // Committed or rolled back together with the task change; one batched insert
+            outbox.appendAll(topic, events);
+        }
+        afterCommit(() -> {
+            events.forEach(eventPublisher::publishEvent);
+            if (jmsDelivery == JmsDelivery.DIRECT) {
+                events.forEach(event -> jmsPublisher.publish(topic, event));
+            }
+        });
+    }
 
-        // Publish to ActiveMQ topics
-        try {
-            jmsTemplate.convertAndSend(TASK_COMPLETED_TOPIC, event);
-            logger.debug("Published TaskCompletedEvent to JMS for task: {}", task.getId());
-        } catch (JmsException e) {
-            logger.error("Failed to publish TaskCompletedEvent to JMS: {}", e.getMessage());
+    // Outside a transaction there is nothing to wait for
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    action.run();
+                } catch (RuntimeException e) {
+                    // The change is committed; a failing listener must not report it as lost
+                    logger.warn("Failed to publish task events after commit: {}", e.getMessage(), e);
+                }
+            }
+        });
     }
-}
\ No newline at end of file
+}
@@ -40,10 +40,16 @@ public class TaskEvents {
     @JsonIgnoreProperties(ignoreUnknown = true)
     public static class TaskCreatedEvent extends TaskEvent {
         private String description;
+        private long creationLatencyMs;
 
         public TaskCreatedEvent(Task task) {
+            this(task, 0);
+        }
+
+        public TaskCreatedEvent(Task task, long creationLatencyMs) {
             super(task);
             this.description = task.getDescription();
+            this.creationLatencyMs = creationLatencyMs;
         }
     }
 
@@ -63,7 +69,9 @@ public class TaskEvents {
     }
 
     /**
-     * Event for when a task is completed (successfully or with failure)
+     * Event for when a processing attempt ends (successfully or with failure).
+     * A failed attempt that will be retried reports status PENDING; a queued
+     * task cancelled before any attempt ran reports attempt number 0.
      */
     @Data
     @NoArgsConstructor
@@ -72,12 +80,14 @@ public class TaskEvents {
         private boolean successful;
         private double progress;
         private long processingTimeMs;
+        private int attemptNumber;
 
         public TaskCompletedEvent(Task task, long processingTimeMs) {
             super(task);
             this.successful = task.getStatus() == Task.TaskStatus.COMPLETED;
             this.progress = task.getProgress();
             this.processingTimeMs = processingTimeMs;
+            this.attemptNumber = task.getAttempts();
         }
     }
 }
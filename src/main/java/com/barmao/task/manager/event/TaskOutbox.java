@@ -0,0 +1,60 @@
+package com.barmao.task.manager.event;
+
+import com.barmao.task.manager.config.JmsConfig;
+import com.barmao.task.manager.event.TaskEventMessageConverter.WireFormat;
+import com.barmao.task.manager.model.OutboxEvent;
+import com.barmao.task.manager.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes task events to the outbox table. Appends must join the transaction
+ * that stores the task change, so either both are committed or neither is.
+ */
+@Component
+public class TaskOutbox {
+
+    private final OutboxEventRepository outboxRepository;
+    private final TaskEventMessageConverter messageConverter;
+    private final ObjectMapper objectMapper = JmsConfig.createEventObjectMapper();
+
+    @Autowired
+    public TaskOutbox(OutboxEventRepository outboxRepository, TaskEventMessageConverter messageConverter) {
+        this.outboxRepository = outboxRepository;
+        this.messageConverter = messageConverter;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(String topic, TaskEvents.TaskEvent event) {
+        outboxRepository.save(toOutboxEvent(topic, event));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(String topic, List<? extends TaskEvents.TaskEvent> events) {
+        List<OutboxEvent> rows = new ArrayList<>(events.size());
+        for (TaskEvents.TaskEvent event : events) {
+            rows.add(toOutboxEvent(topic, event));
+        }
+        outboxRepository.saveAll(rows);
+    }
+
+    private OutboxEvent toOutboxEvent(String topic, TaskEvents.TaskEvent event) {
+        // Encoded now so the relay only copies bytes into messages
+        WireFormat format = messageConverter.formatFor(topic);
+        try {
+            byte[] payload = format == WireFormat.BINARY
+                    ? TaskEventBinaryCodec.encode(event)
+                    : objectMapper.writeValueAsBytes(event);
+            return new OutboxEvent(topic, event.getClass().getName(), format, payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize " + event.getClass().getSimpleName(), e);
+        }
+    }
+}
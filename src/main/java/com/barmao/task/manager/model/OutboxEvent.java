@@ -0,0 +1,52 @@
+package com.barmao.task.manager.model;
+
+import com.barmao.task.manager.event.TaskEventMessageConverter.WireFormat;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A task event waiting to be relayed to JMS. Written in the same transaction
+ * as the task state change it describes and deleted once the broker has it.
+ */
+@Entity
+@Table(name = "task_outbox")
+@Data
+@NoArgsConstructor
+public class OutboxEvent {
+
+    // Sequence (not identity) so Hibernate can still batch inserts. IDs are allocated
+    // before commit, so they do not give a global commit order (see OutboxRelay); allocation
+    // size 1 keeps an event's ID above those of events committed before it was written
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_outbox_seq")
+    @SequenceGenerator(name = "task_outbox_seq", sequenceName = "task_outbox_seq", allocationSize = 1)
+    private Long id;
+
+    private String topic;
+
+    // Class name of the payload, sent as the type id header the JSON converter expects
+    @Column(name = "event_type")
+    private String eventType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "wire_format")
+    private WireFormat format;
+
+    // UTF-8 JSON or the binary task event encoding, as selected for the topic
+    @Lob
+    private byte[] payload;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    public OutboxEvent(String topic, String eventType, WireFormat format, byte[] payload) {
+        this.topic = topic;
+        this.eventType = eventType;
+        this.format = format;
+        this.payload = payload;
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,33 @@
+package com.barmao.task.manager.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * The right to relay the outbox. One row per relay; the node named as owner
+ * relays until the lease expires without being renewed, then any node may
+ * take it over.
+ */
+@Entity
+@Table(name = "task_outbox_lease")
+@Data
+@NoArgsConstructor
+public class OutboxRelayLease {
+
+    @Id
+    private String name;
+
+    private String owner;
+
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
+    public OutboxRelayLease(String name, String owner, LocalDateTime expiresAt) {
+        this.name = name;
+        this.owner = owner;
+        this.expiresAt = expiresAt;
+    }
+}
@@ -9,7 +9,18 @@ import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+        // Status lookups and pending-task draining in creation order (covers id-only queries)
+        @Index(name = "idx_tasks_status_created_at", columnList = "status, created_at, id"),
+        // Recently completed/failed tasks
+        @Index(name = "idx_tasks_status_completed_at", columnList = "status, completed_at"),
+        // Keyset pagination over all tasks
+        @Index(name = "idx_tasks_created_at_id", columnList = "created_at, id"),
+        // Pending tasks in scheduling order (highest priority first, then oldest)
+        @Index(name = "idx_tasks_status_priority", columnList = "status, priority desc, created_at, id"),
+        // Scheduled tasks, reloaded into the timer wheel on startup
+        @Index(name = "idx_tasks_status_not_before", columnList = "status, not_before, id")
+})
 @Data
 @NoArgsConstructor
 public class Task {
@@ -19,20 +30,52 @@ public class Task {
     private String name;
     private String description;
 
+    // Plain varchar rather than a native enum column, so new statuses can be appended
     @Enumerated(EnumType.STRING)
+    @Column(columnDefinition = "varchar(32)")
     private TaskStatus status;
 
+    @Column(name = "created_at")
     private LocalDateTime createdAt;
+
+    @Column(name = "completed_at")
     private LocalDateTime completedAt;
 
+    // Earliest time the task may be processed; null when it is eligible right away
+    @Column(name = "not_before")
+    private LocalDateTime notBefore;
+
+    // Lease of the worker running the task: set by the claim and renewed by the worker's
+    // heartbeat. A PROCESSING task whose lease expired was abandoned and may be taken over
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+
     @Transient // Not persisted - handled in memory
     private AtomicInteger processingAttempts = new AtomicInteger(0);
 
     private int attempts; // Persisted version of attempts
+
+    // Stored as the ordinal so queries can order by it
+    @Enumerated(EnumType.ORDINAL)
+    @Column(columnDefinition = "integer default 1")
+    private TaskPriority priority = TaskPriority.NORMAL;
     private double progress;
 
+    // Optimistic lock: an update based on a stale copy fails instead of overwriting.
+    // Bulk and conditional UPDATE statements increment it themselves
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
+
+    // Only append new values - the binary event codec encodes the ordinal.
+    // DEAD_LETTER: failed on every allowed attempt and will not be retried
     public enum TaskStatus {
-        CREATED, PENDING, PROCESSING, COMPLETED, FAILED
+        CREATED, PENDING, PROCESSING, COMPLETED, FAILED, DEAD_LETTER
+    }
+
+    // Declared from lowest to highest - only append new values
+    public enum TaskPriority {
+        LOW, NORMAL, HIGH
     }
 
     public Task(String name, String description) {
@@ -66,6 +109,25 @@ public class Task {
         this.progress = Math.min(100.0, newProgress);
     }
 
+    // Detached copy that can be handed out without sharing mutable state
+    public Task copy() {
+        Task copy = new Task();
+        copy.id = id;
+        copy.name = name;
+        copy.description = description;
+        copy.status = status;
+        copy.createdAt = createdAt;
+        copy.completedAt = completedAt;
+        copy.notBefore = notBefore;
+        copy.heartbeatAt = heartbeatAt;
+        copy.attempts = attempts;
+        copy.processingAttempts = new AtomicInteger(attempts);
+        copy.progress = progress;
+        copy.priority = priority;
+        copy.version = version;
+        return copy;
+    }
+
     // Called before persisting to ensure attempts count is saved
     @PrePersist
     @PreUpdate
@@ -0,0 +1,30 @@
+package com.barmao.task.manager.repository;
+
+import com.barmao.task.manager.model.OutboxRelayLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface OutboxRelayLeaseRepository extends JpaRepository<OutboxRelayLease, String> {
+
+    /**
+     * Renew the lease if the caller holds it, or take it over once it expired,
+     * in one conditional UPDATE. Of several concurrent callers at most one sees
+     * the row updated.
+     * @return 1 if the caller holds the lease until expiresAt, 0 otherwise
+     */
+    @Transactional
+    @Modifying
+    @Query("update OutboxRelayLease l set l.owner = :owner, l.expiresAt = :expiresAt " +
+            "where l.name = :name and (l.owner = :owner or l.expiresAt < :now)")
+    int acquire(@Param("name") String name,
+                @Param("owner") String owner,
+                @Param("now") LocalDateTime now,
+                @Param("expiresAt") LocalDateTime expiresAt);
+}
@@ -0,0 +1,18 @@
+package com.barmao.task.manager.repository;
+
+import com.barmao.task.manager.model.Task;
+
+import java.util.List;
+
+/**
+ * Bulk write operations that bypass the per-entity merge of {@code save}
+ */
+public interface TaskBatchRepository {
+
+    /**
+     * Insert new tasks in one transaction using JDBC batching
+     * @param tasks New tasks with assigned IDs
+     * @return The inserted tasks (detached)
+     */
+    List<Task> insertAll(List<Task> tasks);
+}
@@ -0,0 +1,39 @@
+package com.barmao.task.manager.repository;
+
+import com.barmao.task.manager.model.Task;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Implementation of {@link TaskBatchRepository}, picked up by Spring Data as a
+ * fragment of {@link TaskRepository}.
+ */
+public class TaskBatchRepositoryImpl implements TaskBatchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}")
+    private int batchSize;
+
+    @Override
+    @Transactional
+    public List<Task> insertAll(List<Task> tasks) {
+        // persist() skips the SELECT that save() issues for entities with assigned IDs;
+        // flushing every batchSize rows lets Hibernate send each chunk as one JDBC batch
+        for (int i = 0; i < tasks.size(); i++) {
+            entityManager.persist(tasks.get(i));
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return tasks;
+    }
+}
@@ -1,17 +1,30 @@
 package com.barmao.task.manager.repository;
 
 import com.barmao.task.manager.model.Task;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, String> {
+public interface TaskRepository extends JpaRepository<Task, String>, TaskBatchRepository {
 
     /**
      * Find tasks by status
@@ -19,4 +32,153 @@ public interface TaskRepository extends JpaRepository<Task, String> {
      * @return List of tasks with the specified status
      */
     List<Task> findByStatus(Task.TaskStatus status);
+
+    /**
+     * Find the IDs of tasks with a status in creation order, served from the
+     * (status, created_at, id) index without loading entities
+     * @param status The task status to filter by
+     * @return IDs of tasks with the specified status
+     */
+    @Query("select t.id from Task t where t.status = :status order by t.createdAt asc, t.id asc")
+    List<String> findIdsByStatus(@Param("status") Task.TaskStatus status);
+
+    /**
+     * First IDs of tasks with a status that are due (no notBefore, or notBefore
+     * reached) in scheduling order: highest priority first, oldest first within
+     * a priority (uses the status/priority index)
+     */
+    @Query("select t.id from Task t where t.status = :status " +
+            "and (t.notBefore is null or t.notBefore <= :now) " +
+            "order by t.priority desc, t.createdAt asc, t.id asc")
+    List<String> findDueIdsByStatusInPriorityOrder(@Param("status") Task.TaskStatus status,
+                                                   @Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Stream [id, notBefore] of every task with a status and a notBefore time,
+     * served from the (status, not_before, id) index. Must be consumed inside a
+     * transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select t.id, t.notBefore from Task t where t.status = :status and t.notBefore is not null")
+    Stream<Object[]> streamScheduled(@Param("status") Task.TaskStatus status);
+
+    /**
+     * Count tasks that reached a final status after the given time
+     * (uses the (status, completed_at) index)
+     */
+    long countByStatusAndCompletedAtAfter(Task.TaskStatus status, LocalDateTime since);
+
+    /**
+     * Count tasks per status in a single GROUP BY query
+     * @return Rows of [Task.TaskStatus status, Long count]
+     */
+    @Query("select t.status, count(t) from Task t group by t.status")
+    List<Object[]> countByStatus();
+
+    /**
+     * Lock the first tasks with the given status for a bulk change. A concurrent
+     * claim of a locked task waits for the change and then finds the status changed.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Task t where t.status = :status order by t.id asc")
+    List<Task> findByStatusForUpdate(@Param("status") Task.TaskStatus status, Pageable pageable);
+
+    /**
+     * Lock the first tasks with the given status whose name matches a LIKE pattern for a bulk change
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Task t where t.status = :status and t.name like :namePattern escape '\\' " +
+            "order by t.id asc")
+    List<Task> findByStatusAndNameLikeForUpdate(@Param("status") Task.TaskStatus status,
+                                                @Param("namePattern") String namePattern, Pageable pageable);
+
+    /**
+     * Atomically claim a task for processing: moves it from the expected status to
+     * PROCESSING, counts the attempt and starts the lease, in one conditional UPDATE.
+     * Of several concurrent callers (threads or nodes) exactly one sees a row updated.
+     * @return 1 if this caller claimed the task, 0 if its status had already changed
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("update Task t set t.status = :processing, t.attempts = t.attempts + 1, t.version = t.version + 1, " +
+            "t.heartbeatAt = :now where t.id = :id and t.status = :expectedStatus")
+    int claim(@Param("id") String id,
+              @Param("expectedStatus") Task.TaskStatus expectedStatus,
+              @Param("processing") Task.TaskStatus processing,
+              @Param("now") LocalDateTime now);
+
+    /**
+     * Atomically take over a PROCESSING task whose lease expired (no heartbeat since
+     * expiredBefore): counts the attempt and starts a new lease. The version bump makes
+     * the final save of the worker that abandoned it fail, should it still be alive.
+     * @return 1 if this caller took the task over, 0 if it finished or its lease is held
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("update Task t set t.attempts = t.attempts + 1, t.version = t.version + 1, t.heartbeatAt = :now " +
+            "where t.id = :id and t.status = :processing " +
+            "and (t.heartbeatAt is null or t.heartbeatAt < :expiredBefore)")
+    int claimAbandoned(@Param("id") String id,
+                       @Param("processing") Task.TaskStatus processing,
+                       @Param("now") LocalDateTime now,
+                       @Param("expiredBefore") LocalDateTime expiredBefore);
+
+    /**
+     * Renew the lease of running tasks. Leaves the version alone so the workers'
+     * own saves are not mistaken for concurrent changes.
+     * @return Number of leases renewed
+     */
+    @Transactional
+    @Modifying
+    @Query("update Task t set t.heartbeatAt = :now where t.id in :ids and t.status = :processing")
+    int renewLeases(@Param("ids") Collection<String> ids,
+                    @Param("processing") Task.TaskStatus processing,
+                    @Param("now") LocalDateTime now);
+
+    /**
+     * First page of tasks in keyset order (createdAt, id)
+     */
+    @Query("select t from Task t order by t.createdAt asc, t.id asc")
+    List<Task> findFirstPage(Pageable pageable);
+
+    /**
+     * Next page of tasks after the given keyset position
+     */
+    @Query("select t from Task t " +
+            "where t.createdAt > :createdAt or (t.createdAt = :createdAt and t.id > :id) " +
+            "order by t.createdAt asc, t.id asc")
+    List<Task> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") String id,
+                             Pageable pageable);
+
+    /**
+     * First page of tasks with the given status in keyset order (createdAt, id)
+     */
+    @Query("select t from Task t where t.status = :status order by t.createdAt asc, t.id asc")
+    List<Task> findFirstPageByStatus(@Param("status") Task.TaskStatus status, Pageable pageable);
+
+    /**
+     * Next page of tasks with the given status after the given keyset position
+     */
+    @Query("select t from Task t where t.status = :status " +
+            "and (t.createdAt > :createdAt or (t.createdAt = :createdAt and t.id > :id)) " +
+            "order by t.createdAt asc, t.id asc")
+    List<Task> findPageByStatusAfter(@Param("status") Task.TaskStatus status,
+                                     @Param("createdAt") LocalDateTime createdAt, @Param("id") String id,
+                                     Pageable pageable);
+
+    /**
+     * Stream all tasks from a database cursor. Must be consumed inside a transaction
+     * and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select t from Task t order by t.createdAt asc, t.id asc")
+    Stream<Task> streamAll();
+
+    /**
+     * Stream tasks with the given status from a database cursor. Must be consumed
+     * inside a transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select t from Task t where t.status = :status order by t.createdAt asc, t.id asc")
+    Stream<Task> streamByStatus(@Param("status") Task.TaskStatus status);
 }
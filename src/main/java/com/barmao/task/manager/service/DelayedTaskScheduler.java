@@ -0,0 +1,221 @@
+package com.barmao.task.manager.service;
+
+import com.barmao.task.manager.exception.ConcurrencyException;
+import com.barmao.task.manager.model.Task;
+import com.barmao.task.manager.repository.TaskRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Starts pending tasks once their notBefore time is reached.
+ *
+ * Every scheduled task has one timer in a {@link HierarchicalTimingWheel}, so
+ * scheduling, rescheduling and cancelling are O(1) and nothing polls the
+ * database. On startup the timers are rebuilt from the (status, not_before)
+ * index. The wheel's ticker only queues due tasks; a dispatcher thread hands
+ * them to the processing pipeline with at most max-in-flight of them started
+ * at a time, so a burst of timers (e.g. overdue ones after a restart) cannot
+ * flood the task executor, and a slow or blocking start cannot stall the ticker.
+ *
+ * Timers are node-local: a runtime schedule or retry only gets a timer on the
+ * node that made it. Other nodes pick the task up from the database when they
+ * rebuild on restart; the atomic claim still lets only one node run it.
+ */
+@Component
+public class DelayedTaskScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(DelayedTaskScheduler.class);
+
+    // 256 slots per level, 4 levels: tick * 2^32 of range before timers re-cascade
+    private static final int SLOT_BITS = 8;
+    private static final int LEVELS = 4;
+
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final HierarchicalTimingWheel<String> wheel;
+    private final int maxInFlight;
+    private final ExecutorService dispatcher;
+
+    private final Map<String, HierarchicalTimingWheel.Timeout<String>> timers = new ConcurrentHashMap<>();
+    private final Queue<String> dueTasks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger dispatchRequests = new AtomicInteger();
+    private final LongAdder startedCount = new LongAdder();
+
+    private volatile Function<String, CompletableFuture<Task>> dueTaskHandler;
+
+    @Autowired
+    public DelayedTaskScheduler(
+            TaskRepository taskRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${task.manager.scheduler.tick-ms:100}") long tickMs,
+            @Value("${task.manager.scheduler.max-in-flight:10}") int maxInFlight) {
+        this.taskRepository = taskRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.wheel = new HierarchicalTimingWheel<>("TaskScheduler", tickMs, SLOT_BITS, LEVELS, this::onDue);
+        this.maxInFlight = maxInFlight;
+        this.dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "TaskScheduler-dispatch");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("task.scheduler.timers", wheel, HierarchicalTimingWheel::size)
+                .description("Scheduled tasks waiting for their notBefore time")
+                .register(meterRegistry);
+        Gauge.builder("task.scheduler.due", dueTasks, Queue::size)
+                .description("Due tasks waiting for a free slot to start")
+                .register(meterRegistry);
+        FunctionCounter.builder("task.scheduler.started", startedCount, LongAdder::sum)
+                .description("Scheduled tasks handed to processing")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        wheel.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        wheel.stop();
+        dispatcher.shutdown();
+        dispatcher.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Set how due tasks are started; the returned future must complete when the task finishes
+     */
+    public void setDueTaskHandler(Function<String, CompletableFuture<Task>> dueTaskHandler) {
+        this.dueTaskHandler = dueTaskHandler;
+        requestDispatch();
+    }
+
+    /**
+     * Reload the timers of all scheduled pending tasks. Overdue tasks are started right away.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        int[] count = {0};
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = taskRepository.streamScheduled(Task.TaskStatus.PENDING)) {
+                rows.forEach(row -> {
+                    schedule((String) row[0], (LocalDateTime) row[1]);
+                    count[0]++;
+                });
+            }
+        });
+        logger.info("Rebuilt {} task timers in {} ms", count[0], System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Start the task at the given time, replacing any earlier schedule for it
+     */
+    public void schedule(String taskId, LocalDateTime notBefore) {
+        long deadline = notBefore.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        HierarchicalTimingWheel.Timeout<String> previous = timers.put(taskId, wheel.schedule(taskId, deadline));
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    /**
+     * Drop the timer of a task
+     * @return false if the task had no pending timer
+     */
+    public boolean cancel(String taskId) {
+        HierarchicalTimingWheel.Timeout<String> timeout = timers.remove(taskId);
+        return timeout != null && timeout.cancel();
+    }
+
+    public int getScheduledCount() {
+        return wheel.size();
+    }
+
+    // Runs on the wheel's ticker thread - only queue the task here
+    private void onDue(String taskId) {
+        // Keep the entry if the task was rescheduled in the meantime
+        timers.computeIfPresent(taskId, (id, timeout) -> timeout.isPending() ? timeout : null);
+        dueTasks.add(taskId);
+        requestDispatch();
+    }
+
+    // A caller that finds a dispatch pending or in progress leaves a request for it and returns
+    private void requestDispatch() {
+        if (dispatchRequests.getAndIncrement() == 0) {
+            dispatcher.execute(this::dispatch);
+        }
+    }
+
+    /**
+     * Start due tasks while fewer than max-in-flight are running. Runs on the
+     * dispatcher thread only, until no request is left.
+     */
+    private void dispatch() {
+        do {
+            Function<String, CompletableFuture<Task>> handler = dueTaskHandler;
+            while (handler != null && inFlight.get() < maxInFlight) {
+                String taskId = dueTasks.poll();
+                if (taskId == null) {
+                    break;
+                }
+                inFlight.incrementAndGet();
+                startedCount.increment();
+                CompletableFuture<Task> result;
+                try {
+                    result = handler.apply(taskId);
+                } catch (RuntimeException e) {
+                    result = CompletableFuture.failedFuture(e);
+                }
+                result.whenComplete((task, error) -> {
+                    if (error != null) {
+                        logOutcome(taskId, error);
+                    }
+                    inFlight.decrementAndGet();
+                    requestDispatch();
+                });
+            }
+        } while (dispatchRequests.decrementAndGet() != 0);
+    }
+
+    private void logOutcome(String taskId, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof ConcurrencyException) {
+            // Cancelled, or started by another node first
+            logger.debug("Scheduled task {} was not started: {}", taskId, cause.getMessage());
+        } else {
+            logger.warn("Scheduled task {} failed to start: {}", taskId, cause.getMessage());
+        }
+    }
+}
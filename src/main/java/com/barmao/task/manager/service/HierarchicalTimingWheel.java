@@ -0,0 +1,273 @@
+package com.barmao.task.manager.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel for large numbers of timers.
+ *
+ * Level 0 has one slot per tick; each higher level has slots as wide as a full
+ * turn of the level below. A timer is linked into the slot of the lowest level
+ * whose span covers its deadline, so scheduling and cancelling are O(1) list
+ * operations. When a lower level wraps, the current slot of the level above is
+ * cascaded: its timers are re-linked into finer levels. Expiry therefore costs
+ * O(1) amortized per timer regardless of how many are pending.
+ *
+ * A single ticker thread advances the wheel and hands expired payloads to the
+ * expiry handler, which must return quickly. Deadlines are wall-clock
+ * milliseconds with tick resolution; timers never fire early.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(HierarchicalTimingWheel.class);
+
+    private final long tickMillis;
+    private final int slotBits;
+    private final int levels;
+    private final long slotMask;
+    private final long maxSpanTicks;
+    private final List<Slot<T>> slots; // Level by level, 2^slotBits slots each
+    private final Consumer<T> expiryHandler;
+    private final String threadName;
+
+    private final long startMillis;
+    private long currentTick; // Guarded by this - last tick processed
+    private int size; // Guarded by this
+
+    private volatile boolean running;
+    private Thread ticker;
+
+    public HierarchicalTimingWheel(String threadName, long tickMillis, int slotBits, int levels,
+                                   Consumer<T> expiryHandler) {
+        this(threadName, tickMillis, slotBits, levels, expiryHandler, System.currentTimeMillis());
+    }
+
+    // Tick 0 at the given wall-clock time; lets tests drive the wheel with advanceTo
+    HierarchicalTimingWheel(String threadName, long tickMillis, int slotBits, int levels,
+                            Consumer<T> expiryHandler, long startMillis) {
+        this.threadName = threadName;
+        this.tickMillis = tickMillis;
+        this.slotBits = slotBits;
+        this.levels = levels;
+        this.slotMask = (1L << slotBits) - 1;
+        this.maxSpanTicks = 1L << Math.min(62, slotBits * levels);
+        this.expiryHandler = expiryHandler;
+        this.slots = new ArrayList<>(levels << slotBits);
+        for (int i = 0; i < levels << slotBits; i++) {
+            slots.add(new Slot<>());
+        }
+        this.startMillis = startMillis;
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        ticker = new Thread(this::runTicker, threadName);
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    public void stop() throws InterruptedException {
+        running = false;
+        if (ticker != null) {
+            ticker.interrupt();
+            ticker.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    /**
+     * Schedule a payload to expire at the given wall-clock time. A deadline in
+     * the past expires on the next tick.
+     */
+    public synchronized Timeout<T> schedule(T payload, long deadlineMillis) {
+        // Round up so a timer never fires before its deadline
+        long deadlineTick = Math.floorDiv(deadlineMillis - startMillis + tickMillis - 1, tickMillis);
+        Timeout<T> timeout = new Timeout<>(this, payload, Math.max(deadlineTick, currentTick + 1));
+        link(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Number of pending timers
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    private synchronized boolean cancel(Timeout<T> timeout) {
+        if (timeout.slot == null) {
+            return false; // Already expired or cancelled
+        }
+        timeout.slot.unlink(timeout);
+        size--;
+        return true;
+    }
+
+    private void link(Timeout<T> timeout) {
+        long remaining = Math.min(timeout.deadlineTick - currentTick, maxSpanTicks - 1);
+        long placementTick = currentTick + remaining; // Beyond the top level's span: cascades again later
+        int level = 0;
+        while (level < levels - 1 && remaining >= 1L << (slotBits * (level + 1))) {
+            level++;
+        }
+        int index = (int) ((placementTick >>> (slotBits * level)) & slotMask);
+        slot(level, index).link(timeout);
+    }
+
+    private Slot<T> slot(int level, int index) {
+        return slots.get((level << slotBits) | index);
+    }
+
+    private void runTicker() {
+        while (running) {
+            try {
+                long nextTickAt;
+                synchronized (this) {
+                    nextTickAt = startMillis + (currentTick + 1) * tickMillis;
+                }
+                long sleep = nextTickAt - System.currentTimeMillis();
+                if (sleep > 0) {
+                    Thread.sleep(sleep);
+                }
+                for (T payload : advanceTo(System.currentTimeMillis())) {
+                    try {
+                        expiryHandler.accept(payload);
+                    } catch (RuntimeException e) {
+                        logger.warn("Timer expiry handler failed for {}: {}", payload, e.getMessage());
+                    }
+                }
+            } catch (InterruptedException e) {
+                if (!running) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Process every tick up to the given time and collect the expired payloads
+     */
+    synchronized List<T> advanceTo(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        long targetTick = Math.floorDiv(nowMillis - startMillis, tickMillis);
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            Slot<T> slot = slot(0, (int) (currentTick & slotMask));
+            for (Timeout<T> timeout = slot.detachAll(); timeout != null; ) {
+                Timeout<T> next = timeout.next;
+                timeout.next = null;
+                expired.add(timeout.payload);
+                size--;
+                timeout = next;
+            }
+        }
+        return expired;
+    }
+
+    // Re-link the current slot of every level whose lower levels just wrapped, highest
+    // first, so timers moving down are picked up by the lower cascades of the same tick
+    private void cascade() {
+        int top = 0;
+        while (top < levels - 1 && (currentTick & ((1L << (slotBits * (top + 1))) - 1)) == 0) {
+            top++;
+        }
+        for (int level = top; level >= 1; level--) {
+            Slot<T> slot = slot(level, (int) ((currentTick >>> (slotBits * level)) & slotMask));
+            for (Timeout<T> timeout = slot.detachAll(); timeout != null; ) {
+                Timeout<T> next = timeout.next;
+                timeout.prev = null;
+                timeout.next = null;
+                link(timeout);
+                timeout = next;
+            }
+        }
+    }
+
+    /**
+     * Handle of a scheduled timer
+     */
+    public static class Timeout<T> {
+        private final HierarchicalTimingWheel<T> wheel;
+        private final T payload;
+        private final long deadlineTick;
+        // Intrusive list links, guarded by the wheel
+        private Slot<T> slot;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(HierarchicalTimingWheel<T> wheel, T payload, long deadlineTick) {
+            this.wheel = wheel;
+            this.payload = payload;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T getPayload() {
+            return payload;
+        }
+
+        /**
+         * True until the timer expires or is cancelled
+         */
+        public boolean isPending() {
+            synchronized (wheel) {
+                return slot != null;
+            }
+        }
+
+        /**
+         * Cancel the timer in O(1)
+         * @return false if it already expired or was cancelled
+         */
+        public boolean cancel() {
+            return wheel.cancel(this);
+        }
+    }
+
+    // Doubly linked list of the timers in one slot
+    private static class Slot<T> {
+        private Timeout<T> head;
+
+        void link(Timeout<T> timeout) {
+            timeout.slot = this;
+            timeout.prev = null;
+            timeout.next = head;
+            if (head != null) {
+                head.prev = timeout;
+            }
+            head = timeout;
+        }
+
+        void unlink(Timeout<T> timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.slot = null;
+            timeout.prev = null;
+            timeout.next = null;
+        }
+
+        // Empty the slot and return its chain, with every timer marked as unlinked
+        Timeout<T> detachAll() {
+            Timeout<T> chain = head;
+            head = null;
+            for (Timeout<T> timeout = chain; timeout != null; timeout = timeout.next) {
+                timeout.slot = null;
+            }
+            return chain;
+        }
+    }
+}
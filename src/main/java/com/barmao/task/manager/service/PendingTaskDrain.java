@@ -0,0 +1,278 @@
+package com.barmao.task.manager.service;
+
+import com.barmao.task.manager.exception.ConcurrencyException;
+import com.barmao.task.manager.model.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One run of processing the pending backlog, with a bounded window.
+ *
+ * At most maxInFlight tasks are submitted at a time; each completion submits the
+ * next one. Every refill asks for the head of the pending backlog in scheduling
+ * order (highest priority first, then oldest), so a high-priority task created
+ * mid-drain is picked up next. Processed tasks leave PENDING, which advances the
+ * position without a cursor; tasks still in flight, or that failed with an error
+ * and stayed pending, are skipped by ID. Both sets stay small.
+ *
+ * Nothing blocks while waiting: refills run on the thread that completed a task,
+ * serialized so only one thread queries and submits at a time. The drain can be
+ * paused, resumed and aborted; abort stops submitting, and tasks already in
+ * flight run to the end.
+ */
+public class PendingTaskDrain {
+
+    private static final Logger logger = LoggerFactory.getLogger(PendingTaskDrain.class);
+
+    public enum State {
+        RUNNING,
+        PAUSED,
+        // Abort requested, waiting for in-flight tasks
+        ABORTING,
+        ABORTED,
+        COMPLETED
+    }
+
+    private final String id;
+    private final TaskService taskService;
+    private final int maxInFlight;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final CompletableFuture<PendingTaskDrain> finished = new CompletableFuture<>();
+
+    // Submitted tasks not finished yet, and tasks that ended in an error
+    private final Set<String> inFlightIds = ConcurrentHashMap.newKeySet();
+    private final Set<String> erroredIds = ConcurrentHashMap.newKeySet();
+    private boolean exhausted; // Only touched inside the refill loop
+
+    private volatile State state = State.RUNNING;
+    private volatile LocalDateTime finishedAt;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger refillRequests = new AtomicInteger();
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    PendingTaskDrain(String id, TaskService taskService, int maxInFlight) {
+        this.id = id;
+        this.taskService = taskService;
+        this.maxInFlight = maxInFlight;
+    }
+
+    void start() {
+        logger.info("Draining pending tasks (drain {}, at most {} in flight)", id, maxInFlight);
+        refill();
+    }
+
+    public boolean pause() {
+        return transition(State.RUNNING, State.PAUSED);
+    }
+
+    public boolean resume() {
+        if (!transition(State.PAUSED, State.RUNNING)) {
+            return false;
+        }
+        refill();
+        return true;
+    }
+
+    public boolean abort() {
+        boolean aborted = transition(State.RUNNING, State.ABORTING) || transition(State.PAUSED, State.ABORTING);
+        if (aborted) {
+            refill(); // Finishes right away if nothing is in flight
+        }
+        return aborted;
+    }
+
+    private synchronized boolean transition(State from, State to) {
+        if (state != from) {
+            return false;
+        }
+        state = to;
+        return true;
+    }
+
+    /**
+     * Submit tasks until the window is full. A caller that finds another thread
+     * already refilling leaves a request behind for it and returns at once.
+     */
+    private void refill() {
+        if (refillRequests.getAndIncrement() != 0) {
+            return;
+        }
+        do {
+            try {
+                fillWindow();
+            } catch (RuntimeException e) {
+                // Listing the backlog failed - stop rather than spin on the error
+                logger.error("Drain {} could not read pending tasks: {}", id, e.getMessage());
+                errors.increment();
+                exhausted = true;
+            }
+            finishIfDone();
+        } while (refillRequests.decrementAndGet() != 0);
+    }
+
+    private void fillWindow() {
+        int free = maxInFlight - inFlight.get();
+        if (state != State.RUNNING || free <= 0) {
+            return;
+        }
+        // Over-fetch by the IDs that will be skipped; they may still be pending
+        List<String> head = taskService.getPendingTaskIds(free + inFlightIds.size() + erroredIds.size());
+        int submittedNow = 0;
+        for (String taskId : head) {
+            if (submittedNow == free) {
+                break;
+            }
+            if (!inFlightIds.contains(taskId) && !erroredIds.contains(taskId)) {
+                submit(taskId);
+                submittedNow++;
+            }
+        }
+        // Nothing left to start; the drain completes once the last task in flight finishes
+        exhausted = submittedNow == 0;
+    }
+
+    private void submit(String taskId) {
+        inFlightIds.add(taskId);
+        inFlight.incrementAndGet();
+        submitted.increment();
+        CompletableFuture<Task> result;
+        try {
+            result = taskService.processTaskAsync(taskId);
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        result.whenComplete((task, error) -> onTaskFinished(taskId, task, error));
+    }
+
+    private void onTaskFinished(String taskId, Task task, Throwable error) {
+        if (error == null) {
+            (task.getStatus() == Task.TaskStatus.COMPLETED ? completed : failed).increment();
+        } else {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+            if (cause instanceof ConcurrencyException) {
+                skipped.increment(); // Claimed by another worker or drain first
+            } else {
+                errors.increment();
+                erroredIds.add(taskId); // May still be pending - do not pick it up again
+                logger.warn("Drain {}: task failed with an error: {}", id, cause.getMessage());
+            }
+        }
+        inFlightIds.remove(taskId);
+        inFlight.decrementAndGet();
+        refill();
+    }
+
+    private void finishIfDone() {
+        if (inFlight.get() > 0) {
+            return;
+        }
+        State finalState;
+        synchronized (this) {
+            if (state == State.ABORTING) {
+                finalState = State.ABORTED;
+            } else if (state == State.RUNNING && exhausted) {
+                finalState = State.COMPLETED;
+            } else {
+                return;
+            }
+            state = finalState;
+        }
+        finishedAt = LocalDateTime.now();
+        logger.info("Drain {} {}: {} submitted, {} completed, {} failed, {} skipped, {} errors",
+                id, finalState.name().toLowerCase(), submitted.sum(), completed.sum(), failed.sum(),
+                skipped.sum(), errors.sum());
+        finished.complete(this);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public boolean isFinished() {
+        return finished.isDone();
+    }
+
+    /**
+     * Completes with this drain once it is COMPLETED or ABORTED
+     */
+    public CompletableFuture<PendingTaskDrain> whenFinished() {
+        return finished;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    /**
+     * Snapshot of the drain's progress
+     */
+    public Progress getProgress() {
+        return new Progress(id, state, maxInFlight, inFlight.get(), submitted.sum(), completed.sum(),
+                failed.sum(), skipped.sum(), errors.sum(), startedAt, finishedAt);
+    }
+
+    // Data class for drain progress
+    public static class Progress {
+        private final String id;
+        private final State state;
+        private final int maxInFlight;
+        private final int inFlight;
+        private final long submitted;
+        private final long completed;
+        private final long failed;
+        private final long skipped;
+        private final long errors;
+        private final LocalDateTime startedAt;
+        private final LocalDateTime finishedAt;
+
+        public Progress(String id, State state, int maxInFlight, int inFlight, long submitted, long completed,
+                        long failed, long skipped, long errors, LocalDateTime startedAt, LocalDateTime finishedAt) {
+            this.id = id;
+            this.state = state;
+            this.maxInFlight = maxInFlight;
+            this.inFlight = inFlight;
+            this.submitted = submitted;
+            this.completed = completed;
+            this.failed = failed;
+            this.skipped = skipped;
+            this.errors = errors;
+            this.startedAt = startedAt;
+            this.finishedAt = finishedAt;
+        }
+
+        public String getId() { return id; }
+        public State getState() { return state; }
+        public int getMaxInFlight() { return maxInFlight; }
+        public int getInFlight() { return inFlight; }
+        public long getSubmitted() { return submitted; }
+        // Tasks that ran to COMPLETED
+        public long getCompleted() { return completed; }
+        // Tasks whose run failed (including cancellations and runs that scheduled a retry)
+        public long getFailed() { return failed; }
+        // Tasks another worker claimed first
+        public long getSkipped() { return skipped; }
+        // Tasks whose processing raised an error
+        public long getErrors() { return errors; }
+        public LocalDateTime getStartedAt() { return startedAt; }
+        public LocalDateTime getFinishedAt() { return finishedAt; }
+    }
+}
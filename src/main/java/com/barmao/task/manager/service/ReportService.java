@@ -1,12 +1,23 @@
 package com.barmao.task.manager.service;
 
+import com.barmao.task.manager.model.Task;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.concurrent.CompletableFuture;
@@ -16,10 +27,34 @@ public class ReportService {
 
     private static final Logger logger = LoggerFactory.getLogger(ReportService.class);
     private final TaskService taskService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${task.manager.report.flush-rows:500}")
+    private int flushRows;
+
+    private volatile LocalDateTime lastReportTime = LocalDateTime.now();
+
+    // Output formats of the streaming report
+    public enum ReportFormat {
+        TEXT("text/plain"),
+        CSV("text/csv"),
+        NDJSON("application/x-ndjson");
+
+        private final String contentType;
+
+        ReportFormat(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+    }
 
     @Autowired
-    public ReportService(TaskService taskService) {
+    public ReportService(TaskService taskService, ObjectMapper objectMapper) {
         this.taskService = taskService;
+        this.objectMapper = objectMapper;
     }
 
     // SCENARIO 5: Scheduled background task - runs every 30 seconds
@@ -36,6 +71,13 @@ public class ReportService {
         logger.info("  Processing tasks: {}", stats.getProcessingTasks());
         logger.info("  Completed tasks: {}", stats.getCompletedTasks());
         logger.info("  Failed tasks: {}", stats.getFailedTasks());
+        logger.info("  Dead-lettered tasks: {}", stats.getDeadLetterTasks());
+
+        // Index lookups on (status, completed_at) rather than scans
+        LocalDateTime since = lastReportTime;
+        lastReportTime = LocalDateTime.now();
+        logger.info("  Completed since last report: {}",
+                taskService.countTasksFinishedSince(Task.TaskStatus.COMPLETED, since));
     }
 
     // SCENARIO 6: Asynchronous report generation with CompletableFuture chaining
@@ -77,4 +119,132 @@ public class ReportService {
                     return report.toString();
                 });
     }
-}
\ No newline at end of file
+
+    // SCENARIO 10: Streaming report generation with constant memory
+    /**
+     * Write the detailed report row by row as tasks are read from a database cursor.
+     * Output is flushed to the client in chunks of {@code flushRows} rows, and runs on
+     * the calling thread so the small report pool is not involved.
+     */
+    public void writeDetailedReport(ReportFormat format, OutputStream out) throws IOException {
+        logger.info("Streaming detailed {} report on thread: {}", format, Thread.currentThread().getName());
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        JsonGenerator json = format == ReportFormat.NDJSON
+                ? objectMapper.getFactory().createGenerator(writer).setRootValueSeparator(null)
+                : null;
+        StringBuilder line = new StringBuilder(128); // Reused for every row
+        int[] rows = {0};
+
+        writeReportHeader(format, writer);
+
+        try {
+            taskService.streamTasks(null, task -> {
+                try {
+                    if (json != null) {
+                        writeJsonRow(json, task);
+                    } else {
+                        line.setLength(0);
+                        if (format == ReportFormat.CSV) {
+                            appendCsvRow(line, task);
+                        } else {
+                            appendTextRow(line, task);
+                        }
+                        writer.append(line);
+                    }
+
+                    if (++rows[0] % flushRows == 0) {
+                        if (json != null) {
+                            json.flush();
+                        }
+                        writer.flush();
+                        out.flush(); // Send this chunk to the client
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        if (json != null) {
+            json.flush();
+        }
+        writer.flush();
+        logger.info("Streamed detailed report with {} rows", rows[0]);
+    }
+
+    private void writeReportHeader(ReportFormat format, Writer writer) throws IOException {
+        if (format == ReportFormat.TEXT) {
+            StringBuilder header = new StringBuilder(256);
+            header.append("Detailed Task Report - Generated at: ").append(LocalDateTime.now()).append("\n\n");
+            appendTextColumns(header, "ID", "NAME", "STATUS", "PROGRESS", "ATTEMPTS");
+            header.append("-".repeat(100)).append('\n');
+            writer.append(header);
+        } else if (format == ReportFormat.CSV) {
+            writer.append("id,name,status,progress,attempts\n");
+        }
+    }
+
+    private void writeJsonRow(JsonGenerator json, Task task) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("id", task.getId());
+        json.writeStringField("name", task.getName());
+        json.writeStringField("status", String.valueOf(task.getStatus()));
+        json.writeNumberField("progress", task.getProgress());
+        json.writeNumberField("attempts", task.getAttempts());
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private void appendTextRow(StringBuilder line, Task task) {
+        appendTextColumns(line, task.getId(), task.getName(), String.valueOf(task.getStatus()),
+                task.getProgress() + "%", String.valueOf(task.getAttempts()));
+    }
+
+    // Same layout as "%-36s | %-20s | %-10s | %-12s | %s" without a Formatter per row
+    private void appendTextColumns(StringBuilder line, String id, String name, String status,
+                                   String progress, String attempts) {
+        appendPadded(line, id, 36).append(" | ");
+        appendPadded(line, name, 20).append(" | ");
+        appendPadded(line, status, 10).append(" | ");
+        appendPadded(line, progress, 12).append(" | ");
+        line.append(attempts).append('\n');
+    }
+
+    private StringBuilder appendPadded(StringBuilder line, String value, int width) {
+        String text = String.valueOf(value);
+        line.append(text);
+        for (int i = text.length(); i < width; i++) {
+            line.append(' ');
+        }
+        return line;
+    }
+
+    private void appendCsvRow(StringBuilder line, Task task) {
+        appendCsvValue(line, task.getId()).append(',');
+        appendCsvValue(line, task.getName()).append(',');
+        line.append(task.getStatus()).append(',')
+                .append(task.getProgress()).append(',')
+                .append(task.getAttempts()).append('\n');
+    }
+
+    private StringBuilder appendCsvValue(StringBuilder line, String value) {
+        if (value == null) {
+            return line;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return line.append(value);
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        return line.append('"');
+    }
+}
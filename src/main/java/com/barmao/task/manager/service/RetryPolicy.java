@@ -0,0 +1,76 @@
+package com.barmao.task.manager.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * When and how soon a failed task is tried again.
+ *
+ * The delay before retry n is drawn uniformly from [0, min(maxDelay, baseDelay * 2^(n-1))]
+ * ("full jitter"). Tasks that failed together are spread over the whole backoff
+ * window instead of coming back in a synchronized burst, and the window doubles
+ * with each attempt so a persistently failing task backs off.
+ */
+@Component
+public class RetryPolicy {
+
+    private final boolean enabled;
+    private final int maxAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+
+    @Autowired
+    public RetryPolicy(
+            @Value("${task.manager.retry.enabled:true}") boolean enabled,
+            @Value("${task.manager.retry.max-attempts:3}") int maxAttempts,
+            @Value("${task.manager.retry.base-delay-ms:1000}") long baseDelayMs,
+            @Value("${task.manager.retry.max-delay-ms:60000}") long maxDelayMs) {
+        if (maxAttempts < 1 || baseDelayMs < 0 || maxDelayMs < baseDelayMs) {
+            throw new IllegalArgumentException("Invalid retry policy: max-attempts must be at least 1 "
+                    + "and 0 <= base-delay-ms <= max-delay-ms");
+        }
+        this.enabled = enabled;
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = maxDelayMs;
+    }
+
+    /**
+     * False when failed tasks stay FAILED
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Whether a task whose attempt number {@code attempts} just failed gets another attempt
+     */
+    public boolean shouldRetry(int attempts) {
+        return attempts < maxAttempts;
+    }
+
+    /**
+     * Random delay before the attempt following attempt number {@code attempts}
+     */
+    public long nextDelayMs(int attempts) {
+        int exponent = Math.min(Math.max(attempts, 1) - 1, 62);
+        // Compare before shifting so large exponents cannot overflow
+        long ceiling = baseDelayMs > (maxDelayMs >> exponent) ? maxDelayMs : baseDelayMs << exponent;
+        return ceiling == 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public long getBaseDelayMs() {
+        return baseDelayMs;
+    }
+
+    public long getMaxDelayMs() {
+        return maxDelayMs;
+    }
+}
@@ -0,0 +1,91 @@
+package com.barmao.task.manager.service;
+
+import com.barmao.task.manager.model.Task;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of tasks by ID.
+ *
+ * Backed by Caffeine (W-TinyLFU eviction, size and TTL bounded). Entries are
+ * refreshed on every save made by the task service and invalidated by task
+ * events, so the TTL only bounds staleness for writes made elsewhere. Only
+ * copies are stored and returned - callers may modify what they get.
+ */
+@Component
+public class TaskCache {
+
+    private final Cache<String, Task> cache;
+
+    public TaskCache(@Value("${task.manager.cache.max-size:10000}") long maxSize,
+                     @Value("${task.manager.cache.ttl-seconds:30}") long ttlSeconds,
+                     MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "tasks");
+    }
+
+    /**
+     * Get a task, loading it on a miss. Absent tasks are not cached.
+     */
+    public Optional<Task> get(String id, Function<String, Optional<Task>> loader) {
+        Task cached = cache.get(id, key -> loader.apply(key).map(Task::copy).orElse(null));
+        return Optional.ofNullable(cached).map(Task::copy);
+    }
+
+    /**
+     * Replace the cached entry with the given (just saved) state
+     */
+    public void put(Task task) {
+        cache.put(task.getId(), task.copy());
+    }
+
+    public void invalidate(String id) {
+        cache.invalidate(id);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStatistics getStatistics() {
+        CacheStats stats = cache.stats();
+        return new CacheStatistics(stats.hitCount(), stats.missCount(), stats.evictionCount(),
+                stats.hitRate(), cache.estimatedSize());
+    }
+
+    // Data class for cache counters
+    public static class CacheStatistics {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final double hitRate;
+        private final long size;
+
+        public CacheStatistics(long hits, long misses, long evictions, double hitRate, long size) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.hitRate = hitRate;
+            this.size = size;
+        }
+
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getEvictions() { return evictions; }
+        public double getHitRate() { return hitRate; }
+        public long getSize() { return size; }
+    }
+}
@@ -0,0 +1,96 @@
+package com.barmao.task.manager.service;
+
+import com.barmao.task.manager.model.Task;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Cooperative cancellation handle for one running task.
+ *
+ * A canceller only raises the flag (and interrupts the worker so it wakes up
+ * from a sleep); the worker checks the flag between steps, stores the final
+ * state itself and then acknowledges through {@link #whenFinished()}. Nobody
+ * but the worker writes the task, so cancellation never races with its save:
+ * the worker calls {@link #beginCompletion()} before storing the outcome, and
+ * later requests are refused without interrupting it.
+ */
+public class TaskCancellationToken {
+
+    private final String taskId;
+    private final String taskName;
+    private final Thread worker;
+    private final CompletableFuture<Task> finished = new CompletableFuture<>();
+
+    private volatile boolean cancellationRequested;
+    private boolean done; // Guarded by this - no interrupt may reach the worker once set
+
+    public TaskCancellationToken(String taskId, String taskName, Thread worker) {
+        this.taskId = taskId;
+        this.taskName = taskName;
+        this.worker = worker;
+    }
+
+    /**
+     * Ask the worker to stop. Returns immediately.
+     * @return false if the task already finished or cancellation was already requested
+     */
+    public boolean requestCancellation() {
+        synchronized (this) {
+            if (done || cancellationRequested) {
+                return false;
+            }
+            cancellationRequested = true;
+            worker.interrupt(); // Wake the worker if it is sleeping between steps
+            return true;
+        }
+    }
+
+    public boolean isCancellationRequested() {
+        return cancellationRequested;
+    }
+
+    /**
+     * Called by the worker before it stores the final state. From here on
+     * cancellation requests are refused and no interrupt reaches the worker.
+     * @return false if cancellation was requested first - the task must end as cancelled
+     */
+    public boolean beginCompletion() {
+        synchronized (this) {
+            done = true;
+        }
+        // An interrupt sent before done was set must not break the final save
+        if (Thread.currentThread() == worker) {
+            Thread.interrupted();
+        }
+        return !cancellationRequested;
+    }
+
+    /**
+     * Called by the worker once the final state of the task is stored
+     */
+    public void finish(Task task) {
+        synchronized (this) {
+            done = true;
+        }
+        // Drop an interrupt aimed at this task so it does not leak into the next one on this thread
+        if (Thread.currentThread() == worker) {
+            Thread.interrupted();
+        }
+        finished.complete(task);
+    }
+
+    /**
+     * Completes with the stored task when the worker is done, cancelled or not
+     */
+    public CompletableFuture<Task> whenFinished() {
+        return finished;
+    }
+
+    public String getTaskId() {
+        return taskId;
+    }
+
+    public String getTaskName() {
+        return taskName;
+    }
+}
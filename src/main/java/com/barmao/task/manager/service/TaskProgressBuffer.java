@@ -0,0 +1,129 @@
+package com.barmao.task.manager.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind store for the progress of running tasks.
+ *
+ * Progress updates are kept in memory and flushed to the tasks table in
+ * coalesced JDBC batches on a fixed interval, so a task costs one small
+ * UPDATE per flush instead of a full-entity save per progress step.
+ * Status transitions are not buffered - they are still saved directly.
+ */
+@Component
+public class TaskProgressBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskProgressBuffer.class);
+
+    // Only touch rows that are still running so a late flush never overwrites a final state
+    private static final String UPDATE_PROGRESS_SQL =
+            "UPDATE tasks SET progress = ? WHERE id = ? AND status = 'PROCESSING'";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${task.manager.progress.flush-batch-size:500}")
+    private int flushBatchSize;
+
+    // Latest known progress of every running task (served to readers)
+    private final Map<String, Double> inFlightProgress = new ConcurrentHashMap<>();
+
+    // Tasks whose progress changed since the last flush
+    private final Set<String> dirtyTaskIds = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public TaskProgressBuffer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Record the latest progress of a running task. Repeated updates between
+     * two flushes are coalesced into a single row write.
+     */
+    public void record(String taskId, double progress) {
+        inFlightProgress.put(taskId, progress);
+        dirtyTaskIds.add(taskId);
+    }
+
+    /**
+     * Get the in-memory progress of a running task, if any
+     */
+    public Optional<Double> getProgress(String taskId) {
+        return Optional.ofNullable(inFlightProgress.get(taskId));
+    }
+
+    /**
+     * Forget a task once it leaves the PROCESSING state. Must be called before
+     * the final state is saved so pending progress is not flushed afterwards.
+     */
+    public void complete(String taskId) {
+        dirtyTaskIds.remove(taskId);
+        inFlightProgress.remove(taskId);
+    }
+
+    /**
+     * Flush all pending progress updates in batches
+     */
+    @Scheduled(fixedDelayString = "${task.manager.progress.flush-interval-ms:1000}")
+    public void flush() {
+        if (dirtyTaskIds.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batch = new ArrayList<>(Math.min(dirtyTaskIds.size(), flushBatchSize));
+        int flushed = 0;
+
+        Iterator<String> iterator = dirtyTaskIds.iterator();
+        while (iterator.hasNext()) {
+            String taskId = iterator.next();
+            iterator.remove();
+
+            Double progress = inFlightProgress.get(taskId);
+            if (progress == null) {
+                continue; // Completed since it was marked dirty
+            }
+
+            batch.add(new Object[]{progress, taskId});
+            if (batch.size() >= flushBatchSize) {
+                flushed += writeBatch(batch);
+                batch.clear();
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            flushed += writeBatch(batch);
+        }
+
+        logger.debug("Flushed progress of {} running tasks", flushed);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private int writeBatch(List<Object[]> batch) {
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_PROGRESS_SQL, batch);
+            return batch.size();
+        } catch (RuntimeException e) {
+            // Progress is advisory - log and let the next update mark the task dirty again
+            logger.error("Failed to flush progress of {} tasks: {}", batch.size(), e.getMessage());
+            return 0;
+        }
+    }
+}
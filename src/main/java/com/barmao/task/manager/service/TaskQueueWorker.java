@@ -0,0 +1,45 @@
+package com.barmao.task.manager.service;
+
+import com.barmao.task.manager.exception.ConcurrencyException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jms.annotation.JmsListener;
+import org.springframework.jms.support.JmsHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+/**
+ * Competing consumer of the task work queue. Each listener thread (on every
+ * node running in QUEUE mode) processes one task at a time.
+ *
+ * The session is transacted: the message is acknowledged when processing
+ * returns. If a worker dies mid-task the broker redelivers the message (up to
+ * the configured maximum, then to the dead-letter queue). The task is left in
+ * PROCESSING with a lease its worker no longer renews; once the lease has
+ * expired the next worker takes the task over. Until then the redelivered
+ * message is rolled back again, since the worker may only be slow. Every
+ * start is counted in Task.attempts.
+ */
+@Component
+public class TaskQueueWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskQueueWorker.class);
+
+    private final TaskService taskService;
+
+    @Autowired
+    public TaskQueueWorker(TaskService taskService) {
+        this.taskService = taskService;
+    }
+
+    @JmsListener(destination = TaskWorkQueue.WORK_QUEUE, containerFactory = "workQueueListenerFactory")
+    public void processTask(String taskId, @Header(JmsHeaders.REDELIVERED) boolean redelivered) {
+        try {
+            taskService.executeTask(taskId, redelivered);
+        } catch (ConcurrencyException e) {
+            // Finished, or running elsewhere - acknowledge and move on
+            logger.debug("Skipping queued task {}: {}", taskId, e.getMessage());
+        }
+    }
+}
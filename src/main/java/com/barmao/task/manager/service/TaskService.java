@@ -2,14 +2,27 @@ package com.barmao.task.manager.service;
 
 import com.barmao.task.manager.model.Task;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public interface TaskService {
 
     //Asynchronous task creation
     CompletableFuture<Task> createTaskAsync(String name, String description);
 
+    //Asynchronous task creation with a scheduling priority; notBefore (null for now) delays processing until that time
+    CompletableFuture<Task> createTaskAsync(String name, String description, Task.TaskPriority priority,
+                                            LocalDateTime notBefore);
+
+    //Process a pending task automatically at notBefore (null to clear the schedule)
+    Task scheduleTask(String id, LocalDateTime notBefore);
+
+    //Asynchronous creation of many tasks with batched inserts in one transaction
+    CompletableFuture<List<Task>> createTasksBatchAsync(List<TaskSpec> specs);
+
     //Get a task by ID
     Task getTaskById(String id);
 
@@ -19,18 +32,125 @@ public interface TaskService {
     //Get tasks by status
     List<Task> getTasksByStatus(Task.TaskStatus status);
 
-    //Process a specific task
+    //Get the IDs of tasks with a status, without loading the tasks
+    List<String> getTaskIdsByStatus(Task.TaskStatus status);
+
+    //Count tasks with a status whose completedAt is after the given time
+    long countTasksFinishedSince(Task.TaskStatus status, LocalDateTime since);
+
+    //Get one keyset page of tasks, optionally filtered by status (null for all)
+    TaskPage getTasksPage(Task.TaskStatus status, String cursor, int limit);
+
+    //Stream tasks from a database cursor, optionally filtered by status (null for all)
+    void streamTasks(Task.TaskStatus status, Consumer<Task> consumer);
+
+    //Process a specific task (on the local executor or through the work queue, by execution mode)
     CompletableFuture<Task> processTaskAsync(String id);
 
-    //Process all pendin tasks in parallel
-    CompletableFuture<List<Task>> processPendingTasksAsync();
+    //Process a task on the calling thread; takeOverStale also accepts a PROCESSING task whose worker's lease expired
+    Task executeTask(String id, boolean takeOverStale);
+
+    //Get the IDs of up to limit due pending tasks in scheduling order (highest priority first, then oldest)
+    List<String> getPendingTaskIds(int limit);
+
+    //Atomically claim up to limit pending tasks in scheduling order (moved to PROCESSING) for a worker to run
+    List<Task> claimNextPending(int limit);
+
+    //Process a task previously returned by claimNextPending on the calling thread
+    Task executeClaimedTask(Task task);
+
+    //Process all pending tasks, keeping at most maxInFlight in flight (0 or less for the configured
+    //default, which is also the upper limit)
+    PendingTaskDrain processPendingTasksAsync(int maxInFlight);
+
+    //Get a drain started by processPendingTasksAsync
+    Optional<PendingTaskDrain> getDrain(String drainId);
 
-    //Cancel a running task
+    //Get all running and recently finished drains
+    List<PendingTaskDrain> getDrains();
+
+    //Request cancellation of a running task without waiting for it
     boolean cancelTask(String id);
 
+    //Request cancellation of a running task; the future completes when the worker has stored the final state
+    Optional<CompletableFuture<Task>> cancelTaskAsync(String id);
+
+    //Cancel all tasks with a status (PENDING, CREATED or PROCESSING; null for all of them) and optional name prefix
+    BulkCancelResult cancelTasks(Task.TaskStatus status, String namePrefix);
+
     // Get task statistics
     TaskStatistics getTaskStatistics();
 
+    // Data class describing a task to create
+    class TaskSpec {
+        private final String name;
+        private final String description;
+        private final Task.TaskPriority priority;
+
+        public TaskSpec(String name, String description) {
+            this(name, description, Task.TaskPriority.NORMAL);
+        }
+
+        public TaskSpec(String name, String description, Task.TaskPriority priority) {
+            this.name = name;
+            this.description = description;
+            this.priority = priority;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public Task.TaskPriority getPriority() {
+            return priority;
+        }
+    }
+
+    // Data class for one page of tasks and the cursor of the next page
+    class TaskPage {
+        private final List<Task> tasks;
+        private final String nextCursor;
+
+        public TaskPage(List<Task> tasks, String nextCursor) {
+            this.tasks = tasks;
+            this.nextCursor = nextCursor;
+        }
+
+        public List<Task> getTasks() {
+            return tasks;
+        }
+
+        // Null when this is the last page
+        public String getNextCursor() {
+            return nextCursor;
+        }
+    }
+
+    // Data class for the outcome of a bulk cancellation
+    class BulkCancelResult {
+        private final int runningCancelled;
+        private final int queuedCancelled;
+
+        public BulkCancelResult(int runningCancelled, int queuedCancelled) {
+            this.runningCancelled = runningCancelled;
+            this.queuedCancelled = queuedCancelled;
+        }
+
+        // Running tasks signalled to stop (they finish asynchronously)
+        public int getRunningCancelled() {
+            return runningCancelled;
+        }
+
+        // Tasks that had not started yet and were marked FAILED directly
+        public int getQueuedCancelled() {
+            return queuedCancelled;
+        }
+    }
+
     // Data class for task statistics
     class TaskStatistics {
         private final long totalTasks;
@@ -38,14 +158,16 @@ public interface TaskService {
         private final long processingTasks;
         private final long completedTasks;
         private final long failedTasks;
+        private final long deadLetterTasks;
 
         public TaskStatistics(long totalTasks, long pendingTasks, long processingTasks,
-                              long completedTasks, long failedTasks) {
+                              long completedTasks, long failedTasks, long deadLetterTasks) {
             this.totalTasks = totalTasks;
             this.pendingTasks = pendingTasks;
             this.processingTasks = processingTasks;
             this.completedTasks = completedTasks;
             this.failedTasks = failedTasks;
+            this.deadLetterTasks = deadLetterTasks;
         }
 
         public long getTotalTasks() {
@@ -67,5 +189,10 @@ public interface TaskService {
         public long getFailedTasks() {
             return failedTasks;
         }
+
+        // Tasks that failed every allowed attempt
+        public long getDeadLetterTasks() {
+            return deadLetterTasks;
+        }
     }
 }
@@ -1,37 +1,126 @@
 package com.barmao.task.manager.service;
 
+import com.barmao.task.manager.config.PriorityTaskExecutor;
 import com.barmao.task.manager.event.TaskEventPublisher;
 import com.barmao.task.manager.exception.ConcurrencyException;
 import com.barmao.task.manager.model.Task;
 import com.barmao.task.manager.repository.TaskRepository;
 import com.barmao.task.manager.service.loadtest.TaskMetricsService;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Random;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class TaskServiceImpl implements TaskService{
 
+    private static final Logger logger = LoggerFactory.getLogger(TaskServiceImpl.class);
+
+    // Tasks failed per transaction by a bulk cancel
+    private static final int CANCEL_CHUNK_SIZE = 500;
+
     private final TaskRepository taskRepository;
     private final TaskEventPublisher eventPublisher; // Use event publisher instead of direct service reference
+    private final TaskProgressBuffer progressBuffer;
+    private final TaskStatisticsTracker statisticsTracker;
+    private final TaskCache taskCache;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor taskExecutor;
+    private final TaskWorkQueue workQueue;
+    private final DelayedTaskScheduler delayedTaskScheduler;
+    private final RetryPolicy retryPolicy;
 
     private final Random random = new Random();
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${task.manager.pagination.max-limit:1000}")
+    private int maxPageLimit;
+
+    @Value("${task.manager.batch.max-size:5000}")
+    private int maxBatchSize;
+
+    @Value("${task.manager.execution.mode:LOCAL}")
+    private TaskWorkQueue.ExecutionMode executionMode;
+
+    @Value("${task.manager.drain.max-in-flight:10}")
+    private int drainMaxInFlight;
+
+    // Simulated work: share of runs that fail, and the delay of each of the 10 progress steps
+    @Value("${task.manager.simulation.failure-rate:0.2}")
+    private double simulatedFailureRate;
+
+    @Value("${task.manager.simulation.step-delay-min-ms:500}")
+    private int stepDelayMinMs;
+
+    @Value("${task.manager.simulation.step-delay-max-ms:800}")
+    private int stepDelayMaxMs;
+
+    // A PROCESSING task without a heartbeat for this long is considered abandoned
+    @Value("${task.manager.work-queue.lease-timeout-ms:15000}")
+    private long leaseTimeoutMs;
+
 
     //Track running tasks for cancellation support
-    private final Map<String, Thread> runningTaskThreads = new ConcurrentHashMap<>();
+    private final Map<String, TaskCancellationToken> runningTasks = new ConcurrentHashMap<>();
+
+    //Drains of the pending backlog, by drain ID
+    private final Map<String, PendingTaskDrain> drains = new ConcurrentHashMap<>();
 
     @Autowired
-    public TaskServiceImpl(TaskRepository taskRepository, TaskEventPublisher eventPublisher) {
+    public TaskServiceImpl(TaskRepository taskRepository, TaskEventPublisher eventPublisher,
+                           TaskProgressBuffer progressBuffer, TaskStatisticsTracker statisticsTracker,
+                           TaskCache taskCache, PlatformTransactionManager transactionManager,
+                           @Qualifier("taskExecutor") Executor taskExecutor, TaskWorkQueue workQueue,
+                           DelayedTaskScheduler delayedTaskScheduler, RetryPolicy retryPolicy) {
         this.taskRepository = taskRepository;
         this.eventPublisher = eventPublisher;
+        this.progressBuffer = progressBuffer;
+        this.statisticsTracker = statisticsTracker;
+        this.taskCache = taskCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.taskExecutor = taskExecutor;
+        this.workQueue = workQueue;
+        this.delayedTaskScheduler = delayedTaskScheduler;
+        this.retryPolicy = retryPolicy;
+    }
+
+    @PostConstruct
+    public void registerDueTaskHandler() {
+        // Scheduled tasks go through the same pipeline as a POST /process
+        delayedTaskScheduler.setDueTaskHandler(this::processTaskAsync);
     }
 
 
@@ -39,25 +128,80 @@ public class TaskServiceImpl implements TaskService{
     @Async("taskExecutor")
     @Override
     public CompletableFuture<Task> createTaskAsync(String name, String description) {
+        return CompletableFuture.completedFuture(createTask(name, description, Task.TaskPriority.NORMAL, null));
+    }
+
+    @Async("taskExecutor")
+    @Override
+    public CompletableFuture<Task> createTaskAsync(String name, String description, Task.TaskPriority priority,
+                                                   LocalDateTime notBefore) {
+        return CompletableFuture.completedFuture(createTask(name, description, priority, notBefore));
+    }
+
+    private Task createTask(String name, String description, Task.TaskPriority priority, LocalDateTime notBefore) {
+        long creationStart = System.currentTimeMillis();
 
         //Simulate some processing time
         simulateProcessDelay(500,1500);
 
         Task newTask =  new Task(name,description);
         newTask.setStatus(Task.TaskStatus.PENDING);
-        taskRepository.save(newTask);
+        newTask.setPriority(priority);
+        newTask.setNotBefore(notBefore);
+
+        // Publish event instead of direct service call - stored in the same transaction,
+        // and runs after the insert so the latency includes it
+        saveTask(newTask, () -> eventPublisher.publishTaskCreatedEvent(newTask,
+                System.currentTimeMillis() - creationStart));
+        statisticsTracker.recordCreated(newTask.getStatus());
+        if (notBefore != null) {
+            delayedTaskScheduler.schedule(newTask.getId(), notBefore);
+        }
+
+        return newTask;
+    }
+
+    // SCENARIO 1b: Batch task creation - one transaction, JDBC batched inserts, batched events
+    @Async("taskExecutor")
+    @Override
+    public CompletableFuture<List<Task>> createTasksBatchAsync(List<TaskSpec> specs) {
+        if (specs.size() > maxBatchSize) {
+            throw new IllegalArgumentException(
+                    "Batch of " + specs.size() + " tasks exceeds the maximum of " + maxBatchSize);
+        }
 
-        // Record metrics
-        // Publish event instead of direct service call
-        eventPublisher.publishTaskCreatedEvent(newTask);
+        long creationStart = System.currentTimeMillis();
+        List<Task> newTasks = new ArrayList<>(specs.size());
+        for (TaskSpec spec : specs) {
+            Task newTask = new Task(spec.getName(), spec.getDescription());
+            newTask.setStatus(Task.TaskStatus.PENDING);
+            newTask.setPriority(spec.getPriority());
+            newTasks.add(newTask);
+        }
+
+        // Tasks and their outbox events are committed together
+        transactionTemplate.executeWithoutResult(status -> {
+            taskRepository.insertAll(newTasks);
+            // Every task of the batch waited for the whole insert
+            long creationLatency = System.currentTimeMillis() - creationStart;
+            eventPublisher.publishTaskCreatedEvents(newTasks, creationLatency);
+        });
+        statisticsTracker.recordCreated(Task.TaskStatus.PENDING, newTasks.size());
 
-        return CompletableFuture.completedFuture(newTask);
+        return CompletableFuture.completedFuture(newTasks);
     }
 
     @Override
     public Task getTaskById(String id) {
-        return taskRepository.findById(id)
+        // Served from the read-through cache; polling clients rarely reach the database
+        Task task = taskCache.get(id, taskRepository::findById)
                 .orElseThrow(() -> new RuntimeException("Task not found: " + id));
+
+        // Running tasks report the fresher write-behind progress
+        if (task.getStatus() == Task.TaskStatus.PROCESSING) {
+            progressBuffer.getProgress(id).ifPresent(task::updateProgress);
+        }
+        return task;
     }
 
     @Override
@@ -70,121 +214,398 @@ public class TaskServiceImpl implements TaskService{
         return taskRepository.findByStatus(status);
     }
 
+    @Override
+    public List<String> getTaskIdsByStatus(Task.TaskStatus status) {
+        return taskRepository.findIdsByStatus(status);
+    }
+
+    @Override
+    public long countTasksFinishedSince(Task.TaskStatus status, LocalDateTime since) {
+        return taskRepository.countByStatusAndCompletedAtAfter(status, since);
+    }
+
+    @Override
+    public TaskPage getTasksPage(Task.TaskStatus status, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, maxPageLimit));
+        // Fetch one extra row to know whether there is a next page
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+
+        List<Task> tasks;
+        if (cursor == null || cursor.isEmpty()) {
+            tasks = status == null
+                    ? taskRepository.findFirstPage(pageable)
+                    : taskRepository.findFirstPageByStatus(status, pageable);
+        } else {
+            String[] position = decodeCursor(cursor);
+            LocalDateTime createdAt = LocalDateTime.parse(position[0]);
+            tasks = status == null
+                    ? taskRepository.findPageAfter(createdAt, position[1], pageable)
+                    : taskRepository.findPageByStatusAfter(status, createdAt, position[1], pageable);
+        }
+
+        String nextCursor = null;
+        if (tasks.size() > pageSize) {
+            tasks = new ArrayList<>(tasks.subList(0, pageSize));
+            nextCursor = encodeCursor(tasks.get(pageSize - 1));
+        }
+        return new TaskPage(tasks, nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void streamTasks(Task.TaskStatus status, Consumer<Task> consumer) {
+        try (Stream<Task> tasks = status == null
+                ? taskRepository.streamAll()
+                : taskRepository.streamByStatus(status)) {
+            tasks.forEach(task -> {
+                consumer.accept(task);
+                // Detach so the persistence context does not grow with the result size
+                entityManager.detach(task);
+            });
+        }
+    }
+
     // SCENARIO 2: Asynchronous task processing with thread tracking
-    @Async("taskExecutor")
     @Override
     public CompletableFuture<Task> processTaskAsync(String id) {
-        Task task = getTaskById(id);
-        long startTime = System.currentTimeMillis();
+        if (executionMode == TaskWorkQueue.ExecutionMode.QUEUE) {
+            // Reject what cannot be processed before it reaches the queue
+            try {
+                requireProcessable(loadForProcessing(id), false);
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(new CompletionException(e));
+            }
+            return workQueue.submit(id);
+        }
+        Executor executor = taskExecutor;
+        if (taskExecutor instanceof PriorityTaskExecutor priorityExecutor) {
+            // The priority never changes, so a cached copy is good enough to queue by
+            Task.TaskPriority priority = taskCache.get(id, taskRepository::findById)
+                    .map(Task::getPriority)
+                    .orElse(Task.TaskPriority.NORMAL);
+            executor = command -> priorityExecutor.execute(command, priority);
+        }
+        return CompletableFuture.supplyAsync(() -> executeTask(id, false), executor);
+    }
 
-        //Record current thread for potential cancellation
-        Thread currentThread = Thread.currentThread();
-        runningTaskThreads.put(id, currentThread);
+    @Override
+    public Task executeTask(String id, boolean takeOverStale) {
+        // Always read the stored state here - a cached copy may be stale
+        Task task = loadForProcessing(id);
 
+        // Fail fast on an obviously unprocessable task; the conditional UPDATE in
+        // claim() is what actually decides between concurrent callers
+        requireProcessable(task, takeOverStale);
 
-        try {
-            // Check if task is in a valid state for processing
-            synchronized (task) {
-                if (task.getStatus() != Task.TaskStatus.PENDING &&
-                        task.getStatus() != Task.TaskStatus.CREATED) {
-                    throw new ConcurrencyException("Task is already being processed or completed");
-                }
-                task.setStatus(Task.TaskStatus.PROCESSING);
+        return executeClaimedTask(claim(id, task.getStatus()));
+    }
 
-                // Publish event instead of direct service call
-                eventPublisher.publishTaskProcessingStartedEvent(task);
+    @Override
+    public List<Task> claimNextPending(int limit) {
+        List<Task> claimed = new ArrayList<>(limit);
+        // Over-fetch: other workers may win some of the candidates
+        List<String> candidates = getPendingTaskIds(Math.max(1, limit) * 2);
+        for (String id : candidates) {
+            if (claimed.size() >= limit) {
+                break;
             }
+            try {
+                claimed.add(claim(id, Task.TaskStatus.PENDING));
+            } catch (ConcurrencyException e) {
+                // Claimed or cancelled by someone else in the meantime
+            }
+        }
+        return claimed;
+    }
 
-            task.incrementAttempts();
-            taskRepository.save(task);
+    @Override
+    public Task executeClaimedTask(Task task) {
+        String id = task.getId();
+        long startTime = System.currentTimeMillis();
+
+        //Register a cancellation token for this run
+        TaskCancellationToken token = new TaskCancellationToken(id, task.getName(), Thread.currentThread());
+        runningTasks.put(id, token);
 
+        try {
             // Simulate task processing with progress updates
-            processTaskWithProgress(task);
+            processTaskWithProgress(task, token);
+
+            if (!token.beginCompletion()) {
+                // Cancelled after the last step - it still wins, but no later request can
+                task.setStatus(Task.TaskStatus.FAILED);
+                return task;
+            }
 
             // Update task status based on random success/failure
-            boolean successful = random.nextDouble() > 0.2; // 80% success rate
-            task.setStatus(successful ? Task.TaskStatus.COMPLETED : Task.TaskStatus.FAILED);
+            boolean successful = random.nextDouble() >= simulatedFailureRate; // 80% success rate by default
+            if (successful) {
+                task.setStatus(Task.TaskStatus.COMPLETED);
+            } else {
+                handleFailedAttempt(task);
+            }
 
-            return CompletableFuture.completedFuture(task);
+            return task;
         } catch (InterruptedException e) {
-            // Handle thread interruption (for task cancellation)
+            // Cancellation acknowledged
             task.setStatus(Task.TaskStatus.FAILED);
-            Thread.currentThread().interrupt();
-            return CompletableFuture.completedFuture(task);
+            return task;
         } finally {
+            // Refuse further cancellations (and their interrupts) before the final save
+            token.beginCompletion();
+
             // Calculate processing time and record metrics
             long processingTime = System.currentTimeMillis() - startTime;
-            eventPublisher.publishTaskCompletedEvent(task, processingTime);
 
-            // Remove thread reference when done
-            runningTaskThreads.remove(id);
-            taskRepository.save(task);
+            progressBuffer.complete(id);
+            try {
+                // Fails with ConcurrencyException if the task was changed since it was claimed
+                saveTask(task, () -> eventPublisher.publishTaskCompletedEvent(task, processingTime));
+                statisticsTracker.recordTransition(Task.TaskStatus.PROCESSING, task.getStatus());
+                if (task.getStatus() == Task.TaskStatus.PENDING) {
+                    delayedTaskScheduler.schedule(id, task.getNotBefore()); // Retry once committed
+                }
+            } finally {
+                // Unregister and acknowledge any pending cancellation
+                runningTasks.remove(id, token);
+                token.finish(task);
+            }
         }
     }
 
-    // SCENARIO 3: Parallel task processing
     @Override
-    public CompletableFuture<List<Task>> processPendingTasksAsync() {
-        List<Task> pendingTasks = taskRepository.findByStatus(Task.TaskStatus.PENDING);
-        List<CompletableFuture<Task>> futures = new ArrayList<>();
+    public List<String> getPendingTaskIds(int limit) {
+        return taskRepository.findDueIdsByStatusInPriorityOrder(Task.TaskStatus.PENDING, LocalDateTime.now(),
+                PageRequest.of(0, limit));
+    }
+
+    // SCENARIO 2b: Automatic retry - a failed attempt goes back to PENDING with a jittered
+    // backoff, so failures are re-enqueued spread over time; after the last attempt it is dead-lettered
+    private void handleFailedAttempt(Task task) {
+        if (!retryPolicy.isEnabled()) {
+            task.setStatus(Task.TaskStatus.FAILED);
+        } else if (retryPolicy.shouldRetry(task.getAttempts())) {
+            long delayMs = retryPolicy.nextDelayMs(task.getAttempts());
+            task.setStatus(Task.TaskStatus.PENDING);
+            task.setNotBefore(LocalDateTime.now().plus(delayMs, ChronoUnit.MILLIS));
+            logger.debug("Task {} failed attempt {}, retrying in {} ms", task.getId(), task.getAttempts(), delayMs);
+        } else {
+            task.setStatus(Task.TaskStatus.DEAD_LETTER);
+            logger.info("Task {} failed all {} attempts, moved to DEAD_LETTER", task.getId(), task.getAttempts());
+        }
+    }
 
-        // Start processing all pending tasks in parallel
-        for (Task task : pendingTasks) {
-            futures.add(processTaskAsync(task.getId()));
+    @Override
+    public Task scheduleTask(String id, LocalDateTime notBefore) {
+        Task task = loadForProcessing(id);
+        if (task.getStatus() != Task.TaskStatus.PENDING && task.getStatus() != Task.TaskStatus.CREATED) {
+            throw new ConcurrencyException("Only pending tasks can be scheduled, task is " + task.getStatus());
         }
 
-        // Combine all futures into a single CompletableFuture
-        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
-                .thenApply(v -> {
-                    // Extract results from all futures
-                    List<Task> processed = new ArrayList<>();
-                    for (CompletableFuture<Task> future : futures) {
-                        processed.add(future.join());
-                    }
-                    return processed;
-                });
+        task.setNotBefore(notBefore);
+        saveTask(task, () -> { }); // Fails with ConcurrencyException if the task was claimed meanwhile
+        if (notBefore != null) {
+            delayedTaskScheduler.schedule(id, notBefore);
+        } else {
+            delayedTaskScheduler.cancel(id);
+        }
+        return task;
+    }
+
+    // SCENARIO 3: Parallel task processing with a bounded in-flight window
+    @Override
+    public PendingTaskDrain processPendingTasksAsync(int maxInFlight) {
+        // Forget drains that finished long ago
+        LocalDateTime retainSince = LocalDateTime.now().minusHours(1);
+        drains.values().removeIf(drain -> drain.isFinished() && drain.getFinishedAt().isBefore(retainSince));
+
+        // The configured window is also the ceiling: a larger one would overrun the task
+        // executor, whose caller-runs fallback would then process tasks on this thread
+        int window = maxInFlight > 0 ? Math.min(maxInFlight, drainMaxInFlight) : drainMaxInFlight;
+        PendingTaskDrain drain = new PendingTaskDrain(UUID.randomUUID().toString(), this, window);
+        drains.put(drain.getId(), drain);
+        drain.start();
+        return drain;
+    }
+
+    @Override
+    public Optional<PendingTaskDrain> getDrain(String drainId) {
+        return Optional.ofNullable(drains.get(drainId));
+    }
+
+    @Override
+    public List<PendingTaskDrain> getDrains() {
+        return new ArrayList<>(drains.values());
     }
 
-    // SCENARIO 4: Task cancellation
+    // SCENARIO 4: Cooperative task cancellation
     @Override
     public boolean cancelTask(String id) {
-        Thread taskThread = runningTaskThreads.get(id);
-        if (taskThread != null) {
-            // Interrupt the thread executing the task
-            taskThread.interrupt();
+        TaskCancellationToken token = runningTasks.get(id);
+        // The worker stores FAILED itself, so there is nothing to wait for or save here
+        return token != null && token.requestCancellation();
+    }
 
-            // Wait briefly to allow the task to clean up
-            try {
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
+    @Override
+    public Optional<CompletableFuture<Task>> cancelTaskAsync(String id) {
+        TaskCancellationToken token = runningTasks.get(id);
+        if (token == null) {
+            return Optional.empty();
+        }
+        token.requestCancellation();
+        return Optional.of(token.whenFinished());
+    }
 
-            // Update task status
-            Task task = getTaskById(id);
-            task.setStatus(Task.TaskStatus.FAILED);
-            taskRepository.save(task);
+    @Override
+    public BulkCancelResult cancelTasks(Task.TaskStatus status, String namePrefix) {
+        if (status == Task.TaskStatus.COMPLETED || status == Task.TaskStatus.FAILED
+                || status == Task.TaskStatus.DEAD_LETTER) {
+            throw new IllegalArgumentException("Only PENDING, CREATED or PROCESSING tasks can be cancelled");
+        }
 
-            return true;
+        int runningCancelled = 0;
+        if (status == null || status == Task.TaskStatus.PROCESSING) {
+            for (TaskCancellationToken token : runningTasks.values()) {
+                if (matchesPrefix(token.getTaskName(), namePrefix) && token.requestCancellation()) {
+                    runningCancelled++;
+                }
+            }
+        }
+
+        // Tasks that have not started are failed in locked chunks; queued workers
+        // then find them no longer PENDING and skip them
+        int queuedCancelled = 0;
+        if (status == null || status == Task.TaskStatus.PENDING) {
+            queuedCancelled += failQueuedTasks(Task.TaskStatus.PENDING, namePrefix);
+        }
+        if (status == null || status == Task.TaskStatus.CREATED) {
+            queuedCancelled += failQueuedTasks(Task.TaskStatus.CREATED, namePrefix);
         }
-        return false;
+
+        return new BulkCancelResult(runningCancelled, queuedCancelled);
     }
 
     @Override
     public TaskStatistics getTaskStatistics() {
-        List<Task> allTasks = taskRepository.findAll();
+        // Served from live counters - no table scan
+        return new TaskStatistics(
+                statisticsTracker.getTotalCount(),
+                statisticsTracker.getCount(Task.TaskStatus.PENDING),
+                statisticsTracker.getCount(Task.TaskStatus.PROCESSING),
+                statisticsTracker.getCount(Task.TaskStatus.COMPLETED),
+                statisticsTracker.getCount(Task.TaskStatus.FAILED),
+                statisticsTracker.getCount(Task.TaskStatus.DEAD_LETTER));
+    }
+
+
+    // Helper methods
+    private Task loadForProcessing(String id) {
+        return taskRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Task not found: " + id));
+    }
 
-        long totalTasks = allTasks.size();
-        long pendingTasks = countTasksByStatus(allTasks, Task.TaskStatus.PENDING);
-        long processingTasks = countTasksByStatus(allTasks, Task.TaskStatus.PROCESSING);
-        long completedTasks = countTasksByStatus(allTasks, Task.TaskStatus.COMPLETED);
-        long failedTasks = countTasksByStatus(allTasks, Task.TaskStatus.FAILED);
+    private void requireProcessable(Task task, boolean takeOverStale) {
+        if (task.getStatus() == Task.TaskStatus.PENDING || task.getStatus() == Task.TaskStatus.CREATED) {
+            if (task.getNotBefore() != null && task.getNotBefore().isAfter(LocalDateTime.now())) {
+                throw new IllegalStateException("Task is scheduled for " + task.getNotBefore());
+            }
+            return;
+        }
+        // A redelivered queue message for a task still marked PROCESSING elsewhere: the
+        // worker that had it may be gone. claim() takes it over only if its lease expired
+        if (takeOverStale && task.getStatus() == Task.TaskStatus.PROCESSING
+                && !runningTasks.containsKey(task.getId())) {
+            return;
+        }
+        throw new ConcurrencyException("Task is already being processed or completed");
+    }
 
-        return new TaskStatistics(totalTasks, pendingTasks, processingTasks, completedTasks, failedTasks);
+    /**
+     * Move a task from the expected status to PROCESSING with one conditional UPDATE
+     * and store the started event in the same transaction. Exactly one of several
+     * concurrent callers succeeds; the others get a ConcurrencyException.
+     */
+    private Task claim(String id, Task.TaskStatus expectedStatus) {
+        Task claimed = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (expectedStatus == Task.TaskStatus.PROCESSING) {
+                LocalDateTime expiredBefore = now.minus(leaseTimeoutMs, ChronoUnit.MILLIS);
+                if (taskRepository.claimAbandoned(id, Task.TaskStatus.PROCESSING, now, expiredBefore) == 0) {
+                    requireLeaseExpired(id);
+                    throw new ConcurrencyException("Task is already completed");
+                }
+            } else if (taskRepository.claim(id, expectedStatus, Task.TaskStatus.PROCESSING, now) == 0) {
+                throw new ConcurrencyException("Task is already being processed or completed");
+            }
+            Task task = loadForProcessing(id); // Fresh state, including attempts and version
+            eventPublisher.publishTaskProcessingStartedEvent(task);
+            return task;
+        });
+        taskCache.put(claimed);
+        statisticsTracker.recordTransition(expectedStatus, Task.TaskStatus.PROCESSING);
+        return claimed;
     }
 
+    // Not an expected race but a worker that is still alive: the caller should retry
+    // later (a queued message is redelivered) rather than drop the task
+    private void requireLeaseExpired(String id) {
+        if (loadForProcessing(id).getStatus() == Task.TaskStatus.PROCESSING) {
+            throw new IllegalStateException("Task " + id + " is still leased by a running worker");
+        }
+    }
+
+    /**
+     * Renew the lease of every task running on this node, so other nodes do not
+     * take them over. Runs well within the lease timeout.
+     */
+    @Scheduled(fixedDelayString = "${task.manager.work-queue.heartbeat-interval-ms:5000}")
+    public void renewLeases() {
+        if (runningTasks.isEmpty()) {
+            return;
+        }
+        List<String> ids = new ArrayList<>(runningTasks.keySet());
+        int renewed = taskRepository.renewLeases(ids, Task.TaskStatus.PROCESSING, LocalDateTime.now());
+        logger.debug("Renewed the lease of {} running tasks", renewed);
+    }
+
+    private void saveTask(Task task, Runnable publishEvent) {
+        // The outbox row is written in the same transaction as the state change;
+        // Spring events and DIRECT sends go out after the commit
+        try {
+            Task saved = transactionTemplate.execute(status -> {
+                Task result = taskRepository.save(task);
+                publishEvent.run();
+                return result;
+            });
+            task.setVersion(saved.getVersion()); // save() may return a merged copy
+        } catch (OptimisticLockingFailureException e) {
+            // Someone else updated the task since it was read - do not overwrite their change
+            taskCache.invalidate(task.getId());
+            throw new ConcurrencyException("Task was modified concurrently: " + task.getId(), e);
+        }
+        taskCache.put(task); // Keep the cache in step with what was just committed
+    }
+
+    private String encodeCursor(Task lastTask) {
+        String position = lastTask.getCreatedAt() + "|" + lastTask.getId();
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = position.split("\\|", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            LocalDateTime.parse(parts[0]); // Validate before it reaches the query
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
 
-    // Helper methods
     private void simulateProcessDelay(int minMs, int maxMs) {
         try{
             int delay = random.nextInt(maxMs - minMs) + minMs;
@@ -195,28 +616,60 @@ public class TaskServiceImpl implements TaskService{
         }
     }
 
-    private void processTaskWithProgress(Task task) throws InterruptedException {
-        // Simulate a task that takes 5-10 seconds with progress updates
+    private int failQueuedTasks(Task.TaskStatus status, String namePrefix) {
+        String namePattern = namePrefix == null || namePrefix.isEmpty() ? null : escapeLike(namePrefix) + "%";
+        int cancelled = 0;
+        List<Task> chunk;
+        do {
+            // Each chunk leaves the status, so the next query starts from the remaining tasks
+            chunk = transactionTemplate.execute(tx -> {
+                Pageable page = PageRequest.of(0, CANCEL_CHUNK_SIZE);
+                List<Task> tasks = namePattern == null
+                        ? taskRepository.findByStatusForUpdate(status, page)
+                        : taskRepository.findByStatusAndNameLikeForUpdate(status, namePattern, page);
+                LocalDateTime now = LocalDateTime.now();
+                for (Task task : tasks) {
+                    task.setStatus(Task.TaskStatus.FAILED);
+                    task.setCompletedAt(now);
+                }
+                // Completion events resolve queued results and free drain slots waiting on these tasks
+                eventPublisher.publishQueuedTasksCancelledEvents(tasks);
+                return tasks;
+            });
+            for (Task task : chunk) {
+                delayedTaskScheduler.cancel(task.getId());
+                taskCache.put(task);
+            }
+            statisticsTracker.recordTransition(status, Task.TaskStatus.FAILED, chunk.size());
+            cancelled += chunk.size();
+        } while (chunk.size() == CANCEL_CHUNK_SIZE);
+        return cancelled;
+    }
+
+    private boolean matchesPrefix(String name, String namePrefix) {
+        return namePrefix == null || namePrefix.isEmpty() || (name != null && name.startsWith(namePrefix));
+    }
+
+    private String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private void processTaskWithProgress(Task task, TaskCancellationToken token) throws InterruptedException {
+        // Simulate a task that takes 5-8 seconds (by default) with progress updates
         int steps = 10;
-        int baseDelay = random.nextInt(300) + 500; // 500-800ms per step
+        int baseDelay = stepDelayMinMs + random.nextInt(Math.max(1, stepDelayMaxMs - stepDelayMinMs));
 
         for (int i = 1; i <= steps; i++) {
-            // Check for interruption before each step
-            if (Thread.currentThread().isInterrupted()) {
+            // Check for cancellation before each step
+            if (token.isCancellationRequested() || Thread.currentThread().isInterrupted()) {
                 throw new InterruptedException("Task processing was cancelled");
             }
 
             double progress = (i * 100.0) / steps;
             task.updateProgress(progress);
-            taskRepository.save(task);
+            progressBuffer.record(task.getId(), progress); // Flushed to the database in batches
 
             Thread.sleep(baseDelay);
         }
     }
-
-    private long countTasksByStatus(List<Task> tasks, Task.TaskStatus status) {
-        return tasks.stream()
-                .filter(task -> task.getStatus() == status)
-                .count();
-    }
 }
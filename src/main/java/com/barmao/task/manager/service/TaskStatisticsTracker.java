@@ -0,0 +1,120 @@
+package com.barmao.task.manager.service;
+
+import com.barmao.task.manager.model.Task;
+import com.barmao.task.manager.repository.TaskRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Live per-status task counters.
+ *
+ * Counters are seeded from a single GROUP BY query at startup, updated on every
+ * status transition made by the task service and periodically reconciled against
+ * the database, so reading statistics never scans the tasks table.
+ */
+@Component
+public class TaskStatisticsTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskStatisticsTracker.class);
+    private static final Task.TaskStatus[] STATUSES = Task.TaskStatus.values();
+
+    private final TaskRepository taskRepository;
+
+    // One counter per status, indexed by ordinal
+    private final AtomicLongArray countsByStatus = new AtomicLongArray(STATUSES.length);
+
+    @Autowired
+    public TaskStatisticsTracker(TaskRepository taskRepository) {
+        this.taskRepository = taskRepository;
+    }
+
+    @PostConstruct
+    public void seed() {
+        long[] counts = loadCountsFromDatabase();
+        for (int i = 0; i < counts.length; i++) {
+            countsByStatus.set(i, counts[i]);
+        }
+        logger.info("Seeded task statistics with {} tasks", getTotalCount());
+    }
+
+    /**
+     * Record a newly stored task
+     */
+    public void recordCreated(Task.TaskStatus status) {
+        recordCreated(status, 1);
+    }
+
+    /**
+     * Record a batch of newly stored tasks with the same status
+     */
+    public void recordCreated(Task.TaskStatus status, long count) {
+        countsByStatus.addAndGet(status.ordinal(), count);
+    }
+
+    /**
+     * Record a task moving from one status to another
+     */
+    public void recordTransition(Task.TaskStatus from, Task.TaskStatus to) {
+        recordTransition(from, to, 1);
+    }
+
+    /**
+     * Record a number of tasks moving from one status to another (bulk updates)
+     */
+    public void recordTransition(Task.TaskStatus from, Task.TaskStatus to, long count) {
+        if (from == to || count == 0) {
+            return;
+        }
+        countsByStatus.addAndGet(from.ordinal(), -count);
+        countsByStatus.addAndGet(to.ordinal(), count);
+    }
+
+    public long getCount(Task.TaskStatus status) {
+        return countsByStatus.get(status.ordinal());
+    }
+
+    public long getTotalCount() {
+        long total = 0;
+        for (int i = 0; i < STATUSES.length; i++) {
+            total += countsByStatus.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Overwrite the live counters with the database counts. Transitions that race
+     * with the query can leave a small drift, which the next run corrects.
+     */
+    @Scheduled(initialDelayString = "${task.manager.statistics.reconcile-interval-ms:300000}",
+            fixedDelayString = "${task.manager.statistics.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        long[] counts = loadCountsFromDatabase();
+        long drift = 0;
+        for (int i = 0; i < counts.length; i++) {
+            drift += Math.abs(countsByStatus.getAndSet(i, counts[i]) - counts[i]);
+        }
+
+        if (drift > 0) {
+            logger.info("Reconciled task statistics with the database (corrected drift: {})", drift);
+        }
+    }
+
+    private long[] loadCountsFromDatabase() {
+        long[] counts = new long[STATUSES.length];
+        List<Object[]> rows = taskRepository.countByStatus();
+        for (Object[] row : rows) {
+            Task.TaskStatus status = (Task.TaskStatus) row[0];
+            if (status != null) {
+                counts[status.ordinal()] = ((Number) row[1]).longValue();
+            }
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,128 @@
+package com.barmao.task.manager.service;
+
+import com.barmao.task.manager.event.TaskEvents;
+import com.barmao.task.manager.model.Task;
+import com.barmao.task.manager.repository.TaskRepository;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Queue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jms.annotation.JmsListener;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Producer side of the distributed work queue (execution mode QUEUE).
+ *
+ * Task IDs are sent to the {@link #WORK_QUEUE} JMS queue, where competing
+ * {@link TaskQueueWorker}s on any node pick them up. The future returned for
+ * a task completes when its completion event comes back on the task-completed
+ * topic, whichever node processed it.
+ */
+@Component
+public class TaskWorkQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskWorkQueue.class);
+
+    public static final String WORK_QUEUE = "task-work";
+
+    public enum ExecutionMode {
+        // Tasks run on the taskExecutor of the node that received the request
+        LOCAL,
+        // Tasks are queued and run by workers on any node
+        QUEUE
+    }
+
+    private final JmsTemplate queueTemplate;
+    private final TaskRepository taskRepository;
+
+    // Callers waiting for the result of a queued task
+    private final Map<String, CompletableFuture<Task>> pendingResults = new ConcurrentHashMap<>();
+
+    @Value("${task.manager.work-queue.result-timeout-ms:600000}")
+    private long resultTimeoutMs;
+
+    @Autowired
+    public TaskWorkQueue(ConnectionFactory connectionFactory, TaskRepository taskRepository) {
+        this.taskRepository = taskRepository;
+        this.queueTemplate = new JmsTemplate(connectionFactory);
+        this.queueTemplate.setPubSubDomain(false);
+    }
+
+    /**
+     * Queue one task for processing
+     */
+    public CompletableFuture<Task> submit(String taskId) {
+        return submitAll(List.of(taskId)).get(0);
+    }
+
+    /**
+     * Queue several tasks, sent through one session and producer
+     */
+    public List<CompletableFuture<Task>> submitAll(List<String> taskIds) {
+        List<CompletableFuture<Task>> futures = new ArrayList<>(taskIds.size());
+        for (String taskId : taskIds) {
+            futures.add(awaitResult(taskId));
+        }
+
+        try {
+            queueTemplate.execute(session -> {
+                Queue queue = session.createQueue(WORK_QUEUE);
+                try (MessageProducer producer = session.createProducer(queue)) {
+                    for (String taskId : taskIds) {
+                        producer.send(session.createTextMessage(taskId));
+                    }
+                }
+                return null;
+            });
+            logger.debug("Queued {} tasks for processing", taskIds.size());
+        } catch (RuntimeException e) {
+            for (String taskId : taskIds) {
+                CompletableFuture<Task> future = pendingResults.remove(taskId);
+                if (future != null) {
+                    future.completeExceptionally(e);
+                }
+            }
+        }
+        return futures;
+    }
+
+    private CompletableFuture<Task> awaitResult(String taskId) {
+        return pendingResults.computeIfAbsent(taskId, id -> {
+            CompletableFuture<Task> future = new CompletableFuture<>();
+            future.orTimeout(resultTimeoutMs, TimeUnit.MILLISECONDS)
+                    .whenComplete((task, error) -> pendingResults.remove(id, future));
+            return future;
+        });
+    }
+
+    /**
+     * Completion events are broadcast, so the node that queued a task sees the
+     * result even when another node processed it
+     */
+    @JmsListener(destination = "task-completed", containerFactory = "topicListenerFactory")
+    public void onTaskCompleted(TaskEvents.TaskCompletedEvent event) {
+        CompletableFuture<Task> future = pendingResults.remove(event.getTaskId());
+        if (future == null) {
+            return;
+        }
+
+        // The event may be delivered before the final state is committed, so it wins
+        Task task = taskRepository.findById(event.getTaskId()).orElseGet(Task::new);
+        task.setId(event.getTaskId());
+        task.setName(event.getTaskName());
+        task.setStatus(Task.TaskStatus.valueOf(event.getStatus()));
+        task.updateProgress(event.getProgress());
+        future.complete(task);
+    }
+}
@@ -0,0 +1,36 @@
+package com.barmao.task.manager.service.loadtest;
+
+/**
+ * Records one latency metric into a cumulative histogram and an interval
+ * histogram that is reset each time it is read.
+ */
+public class LatencyRecorder {
+
+    private final LatencyHistogram cumulative = new LatencyHistogram();
+    private final LatencyHistogram interval = new LatencyHistogram();
+
+    public void recordMillis(long millis) {
+        cumulative.recordMillis(millis);
+        interval.recordMillis(millis);
+    }
+
+    public void recordNanos(long nanos) {
+        cumulative.recordNanos(nanos);
+        interval.recordNanos(nanos);
+    }
+
+    // Everything recorded since the last reset
+    public LatencyHistogram.LatencySummary getCumulativeSummary() {
+        return cumulative.snapshot().toSummary();
+    }
+
+    // Everything recorded since the previous interval read
+    public LatencyHistogram.LatencySummary getIntervalSummaryAndReset() {
+        return interval.snapshotAndReset().toSummary();
+    }
+
+    public void reset() {
+        cumulative.reset();
+        interval.reset();
+    }
+}
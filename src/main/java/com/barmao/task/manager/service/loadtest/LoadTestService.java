@@ -5,15 +5,22 @@ import com.barmao.task.manager.service.TaskService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
 
 @Service
 public class LoadTestService {
@@ -22,6 +29,10 @@ public class LoadTestService {
     private final TaskService taskService;
     private final TaskMetricsService metricsService;
     private final AtomicInteger taskCounter = new AtomicInteger(0);
+    private final AtomicInteger openLoopRuns = new AtomicInteger(0);
+
+    @Value("${task.manager.load-test.open-loop.dispatch-threads:16}")
+    private int openLoopDispatchThreads;
 
     @Autowired
     public LoadTestService(TaskService taskService, TaskMetricsService metricsService) {
@@ -30,7 +41,10 @@ public class LoadTestService {
     }
 
     /**
-     * Generates and processes a specified number of tasks at a controlled rate
+     * Generates and processes a specified number of tasks at a controlled rate.
+     * Closed-loop: the next batch waits for the previous submission, so an
+     * overloaded system slows the generator down and the reported rate hides
+     * queueing delay. See {@link #generateOpenLoad} for a fixed-schedule run.
      * @param totalTasks Total number of tasks to generate
      * @param tasksPerMinute Rate at which to generate tasks (tasks per minute)
      * @param processImmediately Whether to process tasks as they're created
@@ -113,11 +127,142 @@ public class LoadTestService {
     }
 
     /**
-     * Simulates high processing load by processing many existing tasks concurrently
+     * Open-loop load: task i is due at start + i / rate, whatever the system is
+     * doing. A dedicated timer thread fires every due task and hands it to a
+     * dispatch pool with an unbounded queue, so neither a slow response nor the
+     * executors' CallerRunsPolicy can hold the schedule back - the backlog grows
+     * instead, as it would with real independent clients.
+     *
+     * Latency is measured from each task's intended start time, which corrects
+     * for coordinated omission: time a task spent waiting behind a stalled one
+     * counts, instead of silently shifting its start. The latency from actual
+     * submission is reported next to it; the gap between the two is the
+     * queueing delay a closed-loop generator would not see.
+     * @param totalTasks Total number of tasks to fire
+     * @param tasksPerSecond Target rate of the schedule
+     * @param processImmediately Whether each task is processed after it is created
+     * @return Completes when every fired task has finished
      */
+    public CompletableFuture<OpenLoopResult> generateOpenLoad(int totalTasks, double tasksPerSecond,
+                                                              boolean processImmediately) {
+        if (totalTasks < 1 || !(tasksPerSecond > 0)) {
+            throw new IllegalArgumentException("totalTasks and tasksPerSecond must be positive");
+        }
+        int run = openLoopRuns.incrementAndGet();
+        logger.info("Starting open-loop load test {}: {} tasks at {} tasks/s", run, totalTasks, tasksPerSecond);
+
+        ThreadPoolExecutor dispatcher = new ThreadPoolExecutor(openLoopDispatchThreads, openLoopDispatchThreads,
+                0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                new CustomizableThreadFactory("OpenLoop-" + run + "-Dispatch-"));
+        OpenLoopRun loadRun = new OpenLoopRun(totalTasks, tasksPerSecond, processImmediately, dispatcher);
+
+        Thread timer = new Thread(loadRun::fireOnSchedule, "OpenLoop-" + run + "-Timer");
+        timer.setDaemon(true);
+        timer.start();
+        return loadRun.result.whenComplete((result, throwable) -> dispatcher.shutdown());
+    }
+
+    // State of one open-loop run, shared by the timer, dispatch and completion threads
+    private class OpenLoopRun {
+        private final int totalTasks;
+        private final double tasksPerSecond;
+        private final boolean processImmediately;
+        private final ExecutorService dispatcher;
+        private final CompletableFuture<OpenLoopResult> result = new CompletableFuture<>();
+
+        private final LatencyHistogram correctedLatency = new LatencyHistogram();
+        private final LatencyHistogram uncorrectedLatency = new LatencyHistogram();
+        private final AtomicInteger remaining;
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        // Written by the timer thread only; read after the dispatch of the last task
+        private long startNanos;
+        private long lastFiredNanos;
+        private long maxTimerLagNanos;
+
+        OpenLoopRun(int totalTasks, double tasksPerSecond, boolean processImmediately, ExecutorService dispatcher) {
+            this.totalTasks = totalTasks;
+            this.tasksPerSecond = tasksPerSecond;
+            this.processImmediately = processImmediately;
+            this.dispatcher = dispatcher;
+            this.remaining = new AtomicInteger(totalTasks);
+        }
+
+        // Runs on the timer thread: never waits for a task, only for the clock
+        void fireOnSchedule() {
+            double intervalNanos = 1e9 / tasksPerSecond;
+            startNanos = System.nanoTime();
+            for (int i = 0; i < totalTasks; i++) {
+                long intendedStart = startNanos + (long) (i * intervalNanos);
+                long wait;
+                while ((wait = intendedStart - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                maxTimerLagNanos = Math.max(maxTimerLagNanos, -wait);
+                lastFiredNanos = System.nanoTime();
+                int taskNum = taskCounter.incrementAndGet();
+                dispatcher.execute(() -> submit(taskNum, intendedStart));
+            }
+        }
+
+        // Runs on a dispatch thread; may run the creation itself under CallerRunsPolicy
+        private void submit(int taskNum, long intendedStart) {
+            long submittedAt = System.nanoTime();
+            CompletableFuture<Task> future;
+            try {
+                future = taskService.createTaskAsync("Open-Loop-Task-" + taskNum,
+                        "Generated by the open-loop load test at " + System.currentTimeMillis());
+                if (processImmediately) {
+                    future = future.thenCompose(task -> taskService.processTaskAsync(task.getId()));
+                }
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            future.whenComplete((task, throwable) -> {
+                long finishedAt = System.nanoTime();
+                correctedLatency.recordNanos(finishedAt - intendedStart);
+                uncorrectedLatency.recordNanos(finishedAt - submittedAt);
+                if (throwable != null) {
+                    errors.increment();
+                } else if (!processImmediately || task.getStatus() == Task.TaskStatus.COMPLETED) {
+                    completed.increment();
+                } else {
+                    failed.increment();
+                }
+                if (remaining.decrementAndGet() == 0) {
+                    finish();
+                }
+            });
+        }
+
+        private void finish() {
+            double durationSeconds = (System.nanoTime() - startNanos) / 1e9;
+            double firingSeconds = (lastFiredNanos - startNanos) / 1e9;
+            OpenLoopResult openLoopResult = new OpenLoopResult(totalTasks, tasksPerSecond,
+                    firingSeconds > 0 ? totalTasks / firingSeconds : 0,
+                    durationSeconds > 0 ? totalTasks / durationSeconds : 0,
+                    durationSeconds, maxTimerLagNanos / 1_000_000.0,
+                    completed.sum(), failed.sum(), errors.sum(),
+                    correctedLatency.snapshot().toSummary(), uncorrectedLatency.snapshot().toSummary(),
+                    processImmediately ? "Open loop, created and processed" : "Open loop, created only");
+            logger.info("Open-loop load test finished: target {} tasks/s, achieved {} tasks/s, p99 {} ms "
+                            + "(corrected) vs {} ms (from submission)",
+                    tasksPerSecond, String.format("%.2f", openLoopResult.getThroughputPerSecond()),
+                    openLoopResult.getCorrectedLatency().getP99Ms(),
+                    openLoopResult.getUncorrectedLatency().getP99Ms());
+            result.complete(openLoopResult);
+        }
+    }
+
+    /**
+     * Processes the existing pending tasks with at most maxConcurrent of them in
+     * flight at any time, through the same pipeline as the REST API
+     */
+    @Async("highLoadExecutor")
     public CompletableFuture<LoadTestResult> processExistingTasksInParallel(int maxConcurrent) {
-        List<Task> pendingTasks = taskService.getTasksByStatus(Task.TaskStatus.PENDING);
-        int taskCount = pendingTasks.size();
+        List<String> pendingTaskIds = taskService.getTaskIdsByStatus(Task.TaskStatus.PENDING);
+        int taskCount = pendingTaskIds.size();
 
         if (taskCount == 0) {
             logger.info("No pending tasks found for parallel processing");
@@ -128,35 +273,96 @@ public class LoadTestService {
         logger.info("Starting parallel processing of {} tasks with max concurrency of {}",
                 taskCount, maxConcurrent);
 
-        long startTime = System.currentTimeMillis();
+        ConcurrencyLevelResult result = runWithConcurrencyLimit(pendingTaskIds, maxConcurrent);
+        double rate = result.getThroughputPerSecond() * 60.0;
 
-        // Create a fixed thread pool for controlled concurrency
-        ExecutorService executor = Executors.newFixedThreadPool(maxConcurrent);
+        logger.info("Parallel processing completed: Processed {} tasks in {} seconds ({} tasks/minute)",
+                taskCount, result.getDurationSeconds(), rate);
 
-        List<CompletableFuture<Task>> futures = new ArrayList<>();
+        return CompletableFuture.completedFuture(new LoadTestResult(taskCount, result.getDurationSeconds(), rate,
+                "Parallel processing (max " + maxConcurrent + " concurrent)"));
+    }
 
-        for (Task task : pendingTasks) {
-            CompletableFuture<Task> future = taskService.processTaskAsync(task.getId());
-            futures.add(future);
+    /**
+     * Measures throughput and latency at each concurrency level in turn. For every
+     * level a fresh set of tasks is created and processed with the level as the
+     * admission limit, so the levels do not compete for the same tasks.
+     */
+    @Async("highLoadExecutor")
+    public CompletableFuture<ConcurrencySweepResult> sweepConcurrency(List<Integer> levels, int tasksPerLevel) {
+        logger.info("Starting concurrency sweep over {} with {} tasks per level", levels, tasksPerLevel);
+
+        List<ConcurrencyLevelResult> results = new ArrayList<>(levels.size());
+        for (int level : levels) {
+            List<String> taskIds = createSweepTasks(level, tasksPerLevel);
+            ConcurrencyLevelResult result = runWithConcurrencyLimit(taskIds, level);
+            logger.info("Concurrency {}: {} tasks/s, p50 {} ms, p99 {} ms", level,
+                    String.format("%.2f", result.getThroughputPerSecond()),
+                    result.getLatency().getP50Ms(), result.getLatency().getP99Ms());
+            results.add(result);
         }
+        return CompletableFuture.completedFuture(new ConcurrencySweepResult(tasksPerLevel, results));
+    }
 
-        // Combine all futures
-        CompletableFuture<Void> allFutures = CompletableFuture.allOf(
-                futures.toArray(new CompletableFuture[0]));
-
-        return allFutures.thenApply(v -> {
-            long endTime = System.currentTimeMillis();
-            double durationSeconds = (endTime - startTime) / 1000.0;
-            double rate = taskCount / durationSeconds * 60.0;
-
-            logger.info("Parallel processing completed: Processed {} tasks in {} seconds ({} tasks/minute)",
-                    taskCount, durationSeconds, rate);
+    private List<String> createSweepTasks(int level, int count) {
+        List<TaskService.TaskSpec> specs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            specs.add(new TaskService.TaskSpec("Sweep-C" + level + "-Task-" + taskCounter.incrementAndGet(),
+                    "Generated for the concurrency sweep at level " + level));
+        }
+        List<String> taskIds = new ArrayList<>(count);
+        for (Task task : taskService.createTasksBatchAsync(specs).join()) {
+            taskIds.add(task.getId());
+        }
+        return taskIds;
+    }
 
-            // Shut down the executor
-            executor.shutdown();
+    /**
+     * Admission-controlled runner: a task is submitted only after a permit is
+     * acquired, and the permit is released when the task completes. Latency is
+     * measured from submission to completion.
+     */
+    private ConcurrencyLevelResult runWithConcurrencyLimit(List<String> taskIds, int maxConcurrent) {
+        Semaphore permits = new Semaphore(maxConcurrent);
+        LatencyHistogram latency = new LatencyHistogram();
+        LongAdder completed = new LongAdder();
+        LongAdder failed = new LongAdder();
+        LongAdder errors = new LongAdder();
+
+        long startTime = System.nanoTime();
+        try {
+            for (String taskId : taskIds) {
+                permits.acquire();
+                long submittedAt = System.nanoTime();
+                CompletableFuture<Task> future;
+                try {
+                    future = taskService.processTaskAsync(taskId);
+                } catch (RuntimeException e) {
+                    future = CompletableFuture.failedFuture(e);
+                }
+                future.whenComplete((task, throwable) -> {
+                    latency.recordNanos(System.nanoTime() - submittedAt);
+                    if (throwable != null) {
+                        errors.increment();
+                    } else if (task.getStatus() == Task.TaskStatus.COMPLETED) {
+                        completed.increment();
+                    } else {
+                        failed.increment(); // FAILED, dead-lettered, or failed with a retry scheduled
+                    }
+                    permits.release();
+                });
+            }
+            // All permits back means every submitted task has finished
+            permits.acquire(maxConcurrent);
+        } catch (InterruptedException e) {
+            logger.warn("Concurrency-limited run was interrupted", e);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Load test interrupted", e);
+        }
 
-            return new LoadTestResult(taskCount, durationSeconds, rate, "Parallel processing");
-        });
+        double durationSeconds = (System.nanoTime() - startTime) / 1e9;
+        return new ConcurrencyLevelResult(maxConcurrent, taskIds.size(), completed.sum(), failed.sum(),
+                errors.sum(), durationSeconds, latency.snapshot().toSummary());
     }
 
     // Result class to return load test statistics
@@ -178,4 +384,122 @@ public class LoadTestService {
         public double getTasksPerMinute() { return tasksPerMinute; }
         public String getTestType() { return testType; }
     }
+
+    // Result class for an open-loop run
+    public static class OpenLoopResult {
+        private final int taskCount;
+        private final double targetRatePerSecond;
+        private final double firingRatePerSecond;
+        private final double throughputPerSecond;
+        private final double durationSeconds;
+        private final double maxTimerLagMs;
+        private final long completed;
+        private final long failed;
+        private final long errors;
+        private final LatencyHistogram.LatencySummary correctedLatency;
+        private final LatencyHistogram.LatencySummary uncorrectedLatency;
+        private final String testType;
+
+        public OpenLoopResult(int taskCount, double targetRatePerSecond, double firingRatePerSecond,
+                              double throughputPerSecond, double durationSeconds, double maxTimerLagMs,
+                              long completed, long failed, long errors,
+                              LatencyHistogram.LatencySummary correctedLatency,
+                              LatencyHistogram.LatencySummary uncorrectedLatency, String testType) {
+            this.taskCount = taskCount;
+            this.targetRatePerSecond = targetRatePerSecond;
+            this.firingRatePerSecond = firingRatePerSecond;
+            this.throughputPerSecond = throughputPerSecond;
+            this.durationSeconds = durationSeconds;
+            this.maxTimerLagMs = maxTimerLagMs;
+            this.completed = completed;
+            this.failed = failed;
+            this.errors = errors;
+            this.correctedLatency = correctedLatency;
+            this.uncorrectedLatency = uncorrectedLatency;
+            this.testType = testType;
+        }
+
+        public int getTaskCount() { return taskCount; }
+        public double getTargetRatePerSecond() { return targetRatePerSecond; }
+        // Rate the timer actually fired at; below target only if the timer thread itself fell behind
+        public double getFiringRatePerSecond() { return firingRatePerSecond; }
+        // Tasks finished per second over the whole run, the achieved rate
+        public double getThroughputPerSecond() { return throughputPerSecond; }
+        public double getDurationSeconds() { return durationSeconds; }
+        public double getMaxTimerLagMs() { return maxTimerLagMs; }
+        public long getCompleted() { return completed; }
+        public long getFailed() { return failed; }
+        public long getErrors() { return errors; }
+        // From each task's intended start time to its completion
+        public LatencyHistogram.LatencySummary getCorrectedLatency() { return correctedLatency; }
+        // From the actual submission to completion, as a closed-loop generator measures it
+        public LatencyHistogram.LatencySummary getUncorrectedLatency() { return uncorrectedLatency; }
+        public String getTestType() { return testType; }
+    }
+
+    // Result class for one concurrency level
+    public static class ConcurrencyLevelResult {
+        private final int concurrency;
+        private final int taskCount;
+        private final long completed;
+        private final long failed;
+        private final long errors;
+        private final double durationSeconds;
+        private final LatencyHistogram.LatencySummary latency;
+
+        public ConcurrencyLevelResult(int concurrency, int taskCount, long completed, long failed, long errors,
+                                      double durationSeconds, LatencyHistogram.LatencySummary latency) {
+            this.concurrency = concurrency;
+            this.taskCount = taskCount;
+            this.completed = completed;
+            this.failed = failed;
+            this.errors = errors;
+            this.durationSeconds = durationSeconds;
+            this.latency = latency;
+        }
+
+        public int getConcurrency() { return concurrency; }
+        public int getTaskCount() { return taskCount; }
+        public long getCompleted() { return completed; }
+        public long getFailed() { return failed; }
+        public long getErrors() { return errors; }
+        public double getDurationSeconds() { return durationSeconds; }
+        public double getThroughputPerSecond() { return durationSeconds > 0 ? taskCount / durationSeconds : 0; }
+        public LatencyHistogram.LatencySummary getLatency() { return latency; }
+    }
+
+    // Result class for a concurrency sweep: the throughput/latency curve
+    public static class ConcurrencySweepResult {
+        private static final double SATURATION_THRESHOLD = 0.95;
+
+        private final int tasksPerLevel;
+        private final List<ConcurrencyLevelResult> levels;
+
+        public ConcurrencySweepResult(int tasksPerLevel, List<ConcurrencyLevelResult> levels) {
+            this.tasksPerLevel = tasksPerLevel;
+            this.levels = levels;
+        }
+
+        public int getTasksPerLevel() { return tasksPerLevel; }
+        public List<ConcurrencyLevelResult> getLevels() { return levels; }
+
+        /**
+         * Lowest concurrency reaching 95% of the best throughput; going higher
+         * mostly adds queueing latency. Null for an empty sweep.
+         */
+        public Integer getSaturationConcurrency() {
+            double best = 0;
+            for (ConcurrencyLevelResult level : levels) {
+                best = Math.max(best, level.getThroughputPerSecond());
+            }
+            Integer saturation = null;
+            for (ConcurrencyLevelResult level : levels) {
+                if (level.getThroughputPerSecond() >= best * SATURATION_THRESHOLD
+                        && (saturation == null || level.getConcurrency() < saturation)) {
+                    saturation = level.getConcurrency();
+                }
+            }
+            return saturation;
+        }
+    }
 }
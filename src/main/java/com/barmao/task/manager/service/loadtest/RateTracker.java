@@ -0,0 +1,84 @@
+package com.barmao.task.manager.service.loadtest;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free event rate tracker over a preallocated ring of per-second buckets.
+ *
+ * Each bucket is a striped {@link LongAdder} stamped with the second it counts,
+ * so recording never allocates or touches a shared map, and concurrent workers
+ * mostly hit different cells. A bucket is recycled when its slot comes round
+ * again; increments racing with that roll-over can be lost, which only affects
+ * the first instant of a second.
+ */
+public class RateTracker {
+
+    private static final int SLOTS = 128; // Power of two, longer than the largest window
+
+    private final LongAdder[] counts = new LongAdder[SLOTS];
+    private final AtomicLongArray slotSeconds = new AtomicLongArray(SLOTS);
+
+    public RateTracker() {
+        for (int i = 0; i < SLOTS; i++) {
+            counts[i] = new LongAdder();
+            slotSeconds.set(i, -1);
+        }
+    }
+
+    public void record() {
+        long second = System.currentTimeMillis() / 1000;
+        int slot = (int) (second & (SLOTS - 1));
+
+        long stamp = slotSeconds.get(slot);
+        if (stamp != second && slotSeconds.compareAndSet(slot, stamp, second)) {
+            counts[slot].reset(); // This thread rolled the slot over to the current second
+        }
+        counts[slot].increment();
+    }
+
+    /**
+     * Average events per second over the last completed {@code windowSeconds} seconds
+     */
+    public double getRatePerSecond(int windowSeconds) {
+        int window = Math.max(1, Math.min(windowSeconds, SLOTS - 1));
+        long currentSecond = System.currentTimeMillis() / 1000;
+
+        long sum = 0;
+        for (long second = currentSecond - window; second < currentSecond; second++) {
+            int slot = (int) (second & (SLOTS - 1));
+            if (slotSeconds.get(slot) == second) {
+                sum += counts[slot].sum();
+            }
+        }
+        return (double) sum / window;
+    }
+
+    public void reset() {
+        for (int i = 0; i < SLOTS; i++) {
+            slotSeconds.set(i, -1);
+            counts[i].reset();
+        }
+    }
+
+    public RateSummary getSummary() {
+        return new RateSummary(getRatePerSecond(1), getRatePerSecond(10), getRatePerSecond(60));
+    }
+
+    // Data class for moving rates (events per second)
+    public static class RateSummary {
+        private final double last1s;
+        private final double last10s;
+        private final double last60s;
+
+        public RateSummary(double last1s, double last10s, double last60s) {
+            this.last1s = last1s;
+            this.last10s = last10s;
+            this.last60s = last60s;
+        }
+
+        public double getLast1s() { return last1s; }
+        public double getLast10s() { return last10s; }
+        public double getLast60s() { return last60s; }
+    }
+}
@@ -1,21 +1,39 @@
 package com.barmao.task.manager.service.loadtest;
 
 import com.barmao.task.manager.model.Task;
-import com.barmao.task.manager.service.TaskService;
+import com.barmao.task.manager.service.TaskCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.EnumMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
 
 /**
- * Service for tracking real-time metrics about task processing
+ * Service for tracking real-time metrics about task processing.
+ *
+ * Counters, rates and latencies are also registered in the Micrometer registry
+ * (tasks.created, tasks.processed{outcome,attempt}, tasks.rate{type,window},
+ * task.processing.time{outcome}, task.creation.latency, task.queue.wait{priority}) and
+ * exported through /actuator/prometheus. Registry counters are monotonic and
+ * are not affected by {@link #resetMetrics()}.
+ *
+ * "Processed" counts processing attempts. First attempts and retries are
+ * counted and rated separately, so retry traffic cannot hide a drop in new work.
+ * An attempt fails unless the task ends COMPLETED; its outcome tag tells whether
+ * a retry was scheduled (retrying), attempts ran out (dead_letter) or retries
+ * are off (failed).
  */
 @Service
 public class TaskMetricsService {
@@ -23,24 +41,133 @@ public class TaskMetricsService {
     private static final Logger logger = LoggerFactory.getLogger(TaskMetricsService.class);
 
     // Removed TaskService dependency to break circular reference
+    private final TaskCache taskCache;
+
+    // Metrics counters - striped so concurrent workers do not contend on one value
+    private final LongAdder tasksCreated = new LongAdder();
+    private final LongAdder tasksProcessed = new LongAdder();
+    private final LongAdder tasksCompleted = new LongAdder();
+    private final LongAdder tasksFailed = new LongAdder();
+    private final LongAdder retriesProcessed = new LongAdder();
+    private final LongAdder retriesCompleted = new LongAdder();
+    private final LongAdder retriesScheduled = new LongAdder();
+    private final LongAdder tasksDeadLettered = new LongAdder();
+    private final LongAdder totalProcessingTimeMs = new LongAdder();
+
+    // Latency distributions
+    private final LatencyRecorder processingTime = new LatencyRecorder();
+    private final LatencyRecorder creationLatency = new LatencyRecorder();
+    private final LatencyRecorder queueWait = new LatencyRecorder();
+    private final Map<Task.TaskPriority, LatencyRecorder> queueWaitByPriority = new EnumMap<>(Task.TaskPriority.class);
+    private volatile LocalDateTime intervalStart = LocalDateTime.now();
+
+    // Rate tracking over preallocated per-second buckets
+    private final RateTracker creationRate = new RateTracker();
+    private final RateTracker processingRate = new RateTracker();
+    private final RateTracker firstAttemptRate = new RateTracker();
+    private final RateTracker retryRate = new RateTracker();
+
+    // Meter registry counterparts
+    private final Counter createdCounter;
+    // tasks.processed by the status an attempt ended in, for first attempts and retries
+    private final Map<Task.TaskStatus, Counter> firstAttemptCounters = new EnumMap<>(Task.TaskStatus.class);
+    private final Map<Task.TaskStatus, Counter> retryCounters = new EnumMap<>(Task.TaskStatus.class);
+    private final Timer completedTimer;
+    private final Timer failedTimer;
+    private final Timer creationTimer;
+    private final Map<Task.TaskPriority, Timer> queueWaitTimers = new EnumMap<>(Task.TaskPriority.class);
+
+    @Autowired
+    public TaskMetricsService(TaskCache taskCache, MeterRegistry meterRegistry) {
+        this.taskCache = taskCache;
+
+        this.createdCounter = Counter.builder("tasks.created")
+                .description("Tasks created")
+                .register(meterRegistry);
+        registerProcessedCounters(meterRegistry, "first", firstAttemptCounters);
+        registerProcessedCounters(meterRegistry, "retry", retryCounters);
+
+        this.completedTimer = processingTimer(meterRegistry, "completed");
+        this.failedTimer = processingTimer(meterRegistry, "failed");
+        this.creationTimer = latencyTimer(meterRegistry, "task.creation.latency",
+                "Time from request to persisted task");
+        for (Task.TaskPriority priority : Task.TaskPriority.values()) {
+            queueWaitByPriority.put(priority, new LatencyRecorder());
+            queueWaitTimers.put(priority, Timer.builder("task.queue.wait")
+                    .description("Time a task waited in the executor before it started running")
+                    .tag("priority", priority.name())
+                    .publishPercentileHistogram()
+                    .maximumExpectedValue(Duration.ofMinutes(5))
+                    .register(meterRegistry));
+        }
+
+        registerRateGauges(meterRegistry, "creation", creationRate);
+        registerRateGauges(meterRegistry, "processing", processingRate);
+        registerRateGauges(meterRegistry, "processing-first", firstAttemptRate);
+        registerRateGauges(meterRegistry, "processing-retry", retryRate);
+    }
+
+    private static void registerProcessedCounters(MeterRegistry registry, String attempt,
+                                                  Map<Task.TaskStatus, Counter> counters) {
+        counters.put(Task.TaskStatus.COMPLETED, processedCounter(registry, "completed", attempt));
+        counters.put(Task.TaskStatus.PENDING, processedCounter(registry, "retrying", attempt));
+        counters.put(Task.TaskStatus.DEAD_LETTER, processedCounter(registry, "dead_letter", attempt));
+        counters.put(Task.TaskStatus.FAILED, processedCounter(registry, "failed", attempt));
+    }
+
+    private static Counter processedCounter(MeterRegistry registry, String outcome, String attempt) {
+        return Counter.builder("tasks.processed")
+                .description("Processing attempts that finished")
+                .tag("outcome", outcome)
+                .tag("attempt", attempt)
+                .register(registry);
+    }
+
+    private static Timer processingTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("task.processing.time")
+                .description("Task processing time")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofMinutes(5))
+                .register(registry);
+    }
 
-    // Metrics counters
-    private final AtomicInteger tasksCreated = new AtomicInteger(0);
-    private final AtomicInteger tasksProcessed = new AtomicInteger(0);
-    private final AtomicInteger tasksCompleted = new AtomicInteger(0);
-    private final AtomicInteger tasksFailed = new AtomicInteger(0);
-    private final AtomicLong totalProcessingTimeMs = new AtomicLong(0);
+    private static Timer latencyTimer(MeterRegistry registry, String name, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofMinutes(5))
+                .register(registry);
+    }
 
-    // Rate tracking
-    private final Map<Long, AtomicInteger> creationRateByMinute = new ConcurrentHashMap<>();
-    private final Map<Long, AtomicInteger> processingRateByMinute = new ConcurrentHashMap<>();
+    private static void registerRateGauges(MeterRegistry registry, String type, RateTracker tracker) {
+        for (int window : new int[]{1, 10, 60}) {
+            Gauge.builder("tasks.rate", tracker, t -> t.getRatePerSecond(window))
+                    .description("Tasks per second averaged over the window")
+                    .tag("type", type)
+                    .tag("window", window + "s")
+                    .register(registry);
+        }
+    }
 
     /**
      * Record a task creation event
      */
-    public void recordTaskCreated(Task task) {
-        tasksCreated.incrementAndGet();
-        incrementRateCounter(creationRateByMinute);
+    public void recordTaskCreated(Task task, long creationLatencyMs) {
+        tasksCreated.increment();
+        creationRate.record();
+        creationLatency.recordMillis(creationLatencyMs);
+        createdCounter.increment();
+        creationTimer.record(creationLatencyMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Record how long a task of the given priority waited in an executor before it started running
+     */
+    public void recordQueueWait(Task.TaskPriority priority, long waitNanos) {
+        queueWait.recordNanos(waitNanos);
+        queueWaitByPriority.get(priority).recordNanos(waitNanos);
+        queueWaitTimers.get(priority).record(waitNanos, TimeUnit.NANOSECONDS);
     }
 
     /**
@@ -51,150 +178,251 @@ public class TaskMetricsService {
     }
 
     /**
-     * Record a task completion event
+     * Record the end of a processing attempt; the task carries its status and attempt number
      */
     public void recordTaskCompleted(Task task, long processingTimeMs) {
-        tasksProcessed.incrementAndGet();
-        incrementRateCounter(processingRateByMinute);
+        if (task.getAttempts() == 0) {
+            return; // Cancelled while queued - no attempt was processed
+        }
+        boolean retry = task.getAttempts() > 1;
+        tasksProcessed.increment();
+        processingRate.record();
+        (retry ? retryRate : firstAttemptRate).record();
+        if (retry) {
+            retriesProcessed.increment();
+        }
 
+        Counter counter = (retry ? retryCounters : firstAttemptCounters).get(task.getStatus());
+        if (counter != null) {
+            counter.increment();
+        }
         if (task.getStatus() == Task.TaskStatus.COMPLETED) {
-            tasksCompleted.incrementAndGet();
-        } else if (task.getStatus() == Task.TaskStatus.FAILED) {
-            tasksFailed.incrementAndGet();
+            tasksCompleted.increment();
+            if (retry) {
+                retriesCompleted.increment();
+            }
+            completedTimer.record(processingTimeMs, TimeUnit.MILLISECONDS);
+        } else {
+            tasksFailed.increment();
+            if (task.getStatus() == Task.TaskStatus.PENDING) {
+                retriesScheduled.increment();
+            } else if (task.getStatus() == Task.TaskStatus.DEAD_LETTER) {
+                tasksDeadLettered.increment();
+            }
+            failedTimer.record(processingTimeMs, TimeUnit.MILLISECONDS);
         }
 
-        totalProcessingTimeMs.addAndGet(processingTimeMs);
+        totalProcessingTimeMs.add(processingTimeMs);
+        processingTime.recordMillis(processingTimeMs);
     }
 
     /**
-     * Get the current processing rate (tasks/minute)
+     * Get the current processing rate (tasks/minute, over the last 60 seconds)
      */
     public int getCurrentProcessingRate() {
-        return calculateCurrentRate(processingRateByMinute);
+        return (int) Math.round(processingRate.getRatePerSecond(60) * 60);
     }
 
     /**
-     * Get the current creation rate (tasks/minute)
+     * Get the current creation rate (tasks/minute, over the last 60 seconds)
      */
     public int getCurrentCreationRate() {
-        return calculateCurrentRate(creationRateByMinute);
+        return (int) Math.round(creationRate.getRatePerSecond(60) * 60);
     }
 
     /**
      * Get average processing time in milliseconds
      */
     public double getAverageProcessingTimeMs() {
-        int processed = tasksProcessed.get();
-        return processed > 0 ? (double) totalProcessingTimeMs.get() / processed : 0;
+        long processed = tasksProcessed.sum();
+        return processed > 0 ? (double) totalProcessingTimeMs.sum() / processed : 0;
     }
 
     /**
      * Get total counts
      */
     public int getTotalTasksCreated() {
-        return tasksCreated.get();
+        return tasksCreated.intValue();
     }
 
     public int getTotalTasksProcessed() {
-        return tasksProcessed.get();
+        return tasksProcessed.intValue();
     }
 
     public int getTotalTasksCompleted() {
-        return tasksCompleted.get();
+        return tasksCompleted.intValue();
     }
 
     public int getTotalTasksFailed() {
-        return tasksFailed.get();
+        return tasksFailed.intValue();
     }
 
     /**
-     * Reset all metrics
+     * Get the current processing rates (attempts/minute, over the last 60 seconds)
+     * of first attempts and of retries
      */
-    public void resetMetrics() {
-        tasksCreated.set(0);
-        tasksProcessed.set(0);
-        tasksCompleted.set(0);
-        tasksFailed.set(0);
-        totalProcessingTimeMs.set(0);
-        creationRateByMinute.clear();
-        processingRateByMinute.clear();
+    public int getCurrentFirstAttemptRate() {
+        return (int) Math.round(firstAttemptRate.getRatePerSecond(60) * 60);
     }
 
-    // Helper method to increment rate counter for the current minute
-    private void incrementRateCounter(Map<Long, AtomicInteger> rateMap) {
-        long currentMinute = System.currentTimeMillis() / 60000; // Current minute timestamp
-        rateMap.computeIfAbsent(currentMinute, k -> new AtomicInteger(0)).incrementAndGet();
+    public int getCurrentRetryRate() {
+        return (int) Math.round(retryRate.getRatePerSecond(60) * 60);
     }
 
-    // Calculate current rate by looking at recent entries
-    private int calculateCurrentRate(Map<Long, AtomicInteger> rateMap) {
-        long currentMinute = System.currentTimeMillis() / 60000;
-
-        // Sum the counts from the current minute and the previous minute
-        int sum = 0;
-
-        // Current minute count
-        AtomicInteger current = rateMap.get(currentMinute);
-        if (current != null) {
-            sum += current.get();
-        }
-
-        // Previous minute count
-        AtomicInteger previous = rateMap.get(currentMinute - 1);
-        if (previous != null) {
-            sum += previous.get();
-        }
-
-        // Normalize to per-minute rate (simple average of last two minutes)
-        return (sum + 1) / 2; // Add 1 to avoid division by zero
+    /**
+     * Reset all metrics
+     */
+    public void resetMetrics() {
+        tasksCreated.reset();
+        tasksProcessed.reset();
+        tasksCompleted.reset();
+        tasksFailed.reset();
+        retriesProcessed.reset();
+        retriesCompleted.reset();
+        retriesScheduled.reset();
+        tasksDeadLettered.reset();
+        totalProcessingTimeMs.reset();
+        creationRate.reset();
+        processingRate.reset();
+        firstAttemptRate.reset();
+        retryRate.reset();
+        processingTime.reset();
+        creationLatency.reset();
+        queueWait.reset();
+        queueWaitByPriority.values().forEach(LatencyRecorder::reset);
+        intervalStart = LocalDateTime.now();
     }
 
     // Log metrics every minute
     @Scheduled(fixedRate = 60000)
     public void logMetrics() {
-        logger.info("Task Metrics - Created: {}, Processed: {}, Completed: {}, Failed: {}, " +
-                        "Avg Processing Time: {}ms, Current Creation Rate: {}/min, Current Processing Rate: {}/min",
-                tasksCreated.get(),
-                tasksProcessed.get(),
-                tasksCompleted.get(),
-                tasksFailed.get(),
+        LatencyHistogram.LatencySummary processingSummary = processingTime.getCumulativeSummary();
+        logger.info("Task Metrics - Created: {}, Processed: {} ({} retries), Completed: {}, Failed: {}, " +
+                        "Dead-lettered: {}, Avg Processing Time: {}ms, p99 Processing Time: {}ms, " +
+                        "Current Creation Rate: {}/min, Current Processing Rate: {}/min ({}/min retries)",
+                tasksCreated.sum(),
+                tasksProcessed.sum(),
+                retriesProcessed.sum(),
+                tasksCompleted.sum(),
+                tasksFailed.sum(),
+                tasksDeadLettered.sum(),
                 getAverageProcessingTimeMs(),
+                processingSummary.getP99Ms(),
                 getCurrentCreationRate(),
-                getCurrentProcessingRate());
-
-        // Clean up old entries from rate maps (keep only last 5 minutes)
-        long currentMinute = System.currentTimeMillis() / 60000;
-        cleanupOldEntries(creationRateByMinute, currentMinute);
-        cleanupOldEntries(processingRateByMinute, currentMinute);
-    }
-
-    private void cleanupOldEntries(Map<Long, AtomicInteger> rateMap, long currentMinute) {
-        rateMap.keySet().removeIf(minute -> minute < (currentMinute - 5));
+                getCurrentProcessingRate(),
+                getCurrentRetryRate());
     }
 
     // Get a snapshot of all metrics
     public TaskMetricsSnapshot getMetricsSnapshot() {
         return new TaskMetricsSnapshot(
-                tasksCreated.get(),
-                tasksProcessed.get(),
-                tasksCompleted.get(),
-                tasksFailed.get(),
+                getTotalTasksCreated(),
+                getTotalTasksProcessed(),
+                getTotalTasksCompleted(),
+                getTotalTasksFailed(),
+                retriesProcessed.intValue(),
+                retriesCompleted.intValue(),
+                retriesScheduled.intValue(),
+                tasksDeadLettered.intValue(),
                 getAverageProcessingTimeMs(),
                 getCurrentCreationRate(),
                 getCurrentProcessingRate(),
+                getCurrentFirstAttemptRate(),
+                getCurrentRetryRate(),
+                creationRate.getSummary(),
+                processingRate.getSummary(),
+                firstAttemptRate.getSummary(),
+                retryRate.getSummary(),
+                processingTime.getCumulativeSummary(),
+                creationLatency.getCumulativeSummary(),
+                queueWait.getCumulativeSummary(),
+                summarize(queueWaitByPriority, LatencyRecorder::getCumulativeSummary),
+                taskCache.getStatistics(),
                 LocalDateTime.now()
         );
     }
 
+    /**
+     * Get latency percentiles for the values recorded since the previous call,
+     * then start a new interval (reset-on-read)
+     */
+    public LatencyIntervalSnapshot getLatencyIntervalSnapshot() {
+        LocalDateTime end = LocalDateTime.now();
+        LocalDateTime start = intervalStart;
+        intervalStart = end;
+        return new LatencyIntervalSnapshot(
+                processingTime.getIntervalSummaryAndReset(),
+                creationLatency.getIntervalSummaryAndReset(),
+                queueWait.getIntervalSummaryAndReset(),
+                summarize(queueWaitByPriority, LatencyRecorder::getIntervalSummaryAndReset),
+                start,
+                end);
+    }
+
+    private static Map<Task.TaskPriority, LatencyHistogram.LatencySummary> summarize(
+            Map<Task.TaskPriority, LatencyRecorder> recorders,
+            Function<LatencyRecorder, LatencyHistogram.LatencySummary> summary) {
+        Map<Task.TaskPriority, LatencyHistogram.LatencySummary> summaries = new EnumMap<>(Task.TaskPriority.class);
+        recorders.forEach((priority, recorder) -> summaries.put(priority, summary.apply(recorder)));
+        return summaries;
+    }
+
+    // Data class for one reset-on-read latency window
+    public static class LatencyIntervalSnapshot {
+        private final LatencyHistogram.LatencySummary processingTime;
+        private final LatencyHistogram.LatencySummary creationLatency;
+        private final LatencyHistogram.LatencySummary queueWait;
+        private final Map<Task.TaskPriority, LatencyHistogram.LatencySummary> queueWaitByPriority;
+        private final LocalDateTime intervalStart;
+        private final LocalDateTime intervalEnd;
+
+        public LatencyIntervalSnapshot(
+                LatencyHistogram.LatencySummary processingTime,
+                LatencyHistogram.LatencySummary creationLatency,
+                LatencyHistogram.LatencySummary queueWait,
+                Map<Task.TaskPriority, LatencyHistogram.LatencySummary> queueWaitByPriority,
+                LocalDateTime intervalStart,
+                LocalDateTime intervalEnd) {
+            this.processingTime = processingTime;
+            this.creationLatency = creationLatency;
+            this.queueWait = queueWait;
+            this.queueWaitByPriority = queueWaitByPriority;
+            this.intervalStart = intervalStart;
+            this.intervalEnd = intervalEnd;
+        }
+
+        public LatencyHistogram.LatencySummary getProcessingTime() { return processingTime; }
+        public LatencyHistogram.LatencySummary getCreationLatency() { return creationLatency; }
+        public LatencyHistogram.LatencySummary getQueueWait() { return queueWait; }
+        public Map<Task.TaskPriority, LatencyHistogram.LatencySummary> getQueueWaitByPriority() { return queueWaitByPriority; }
+        public LocalDateTime getIntervalStart() { return intervalStart; }
+        public LocalDateTime getIntervalEnd() { return intervalEnd; }
+    }
+
     // Data class for metrics snapshot
     public static class TaskMetricsSnapshot {
         private final int totalCreated;
         private final int totalProcessed;
         private final int totalCompleted;
         private final int totalFailed;
+        private final int totalRetries;
+        private final int totalRetriesCompleted;
+        private final int totalRetriesScheduled;
+        private final int totalDeadLettered;
         private final double avgProcessingTimeMs;
         private final int creationRate;
         private final int processingRate;
+        private final int firstAttemptRate;
+        private final int retryRate;
+        private final RateTracker.RateSummary creationRates;
+        private final RateTracker.RateSummary processingRates;
+        private final RateTracker.RateSummary firstAttemptRates;
+        private final RateTracker.RateSummary retryRates;
+        private final LatencyHistogram.LatencySummary processingTime;
+        private final LatencyHistogram.LatencySummary creationLatency;
+        private final LatencyHistogram.LatencySummary queueWait;
+        private final Map<Task.TaskPriority, LatencyHistogram.LatencySummary> queueWaitByPriority;
+        private final TaskCache.CacheStatistics cache;
         private final LocalDateTime timestamp;
 
         public TaskMetricsSnapshot(
@@ -202,27 +430,75 @@ public class TaskMetricsService {
                 int totalProcessed,
                 int totalCompleted,
                 int totalFailed,
+                int totalRetries,
+                int totalRetriesCompleted,
+                int totalRetriesScheduled,
+                int totalDeadLettered,
                 double avgProcessingTimeMs,
                 int creationRate,
                 int processingRate,
+                int firstAttemptRate,
+                int retryRate,
+                RateTracker.RateSummary creationRates,
+                RateTracker.RateSummary processingRates,
+                RateTracker.RateSummary firstAttemptRates,
+                RateTracker.RateSummary retryRates,
+                LatencyHistogram.LatencySummary processingTime,
+                LatencyHistogram.LatencySummary creationLatency,
+                LatencyHistogram.LatencySummary queueWait,
+                Map<Task.TaskPriority, LatencyHistogram.LatencySummary> queueWaitByPriority,
+                TaskCache.CacheStatistics cache,
                 LocalDateTime timestamp) {
             this.totalCreated = totalCreated;
             this.totalProcessed = totalProcessed;
             this.totalCompleted = totalCompleted;
             this.totalFailed = totalFailed;
+            this.totalRetries = totalRetries;
+            this.totalRetriesCompleted = totalRetriesCompleted;
+            this.totalRetriesScheduled = totalRetriesScheduled;
+            this.totalDeadLettered = totalDeadLettered;
             this.avgProcessingTimeMs = avgProcessingTimeMs;
             this.creationRate = creationRate;
             this.processingRate = processingRate;
+            this.firstAttemptRate = firstAttemptRate;
+            this.retryRate = retryRate;
+            this.creationRates = creationRates;
+            this.processingRates = processingRates;
+            this.firstAttemptRates = firstAttemptRates;
+            this.retryRates = retryRates;
+            this.processingTime = processingTime;
+            this.creationLatency = creationLatency;
+            this.queueWait = queueWait;
+            this.queueWaitByPriority = queueWaitByPriority;
+            this.cache = cache;
             this.timestamp = timestamp;
         }
 
         public int getTotalCreated() { return totalCreated; }
         public int getTotalProcessed() { return totalProcessed; }
         public int getTotalCompleted() { return totalCompleted; }
+        // Failed attempts, whether or not a retry followed
         public int getTotalFailed() { return totalFailed; }
+        // Attempts after the first, and how many of them completed the task
+        public int getTotalRetries() { return totalRetries; }
+        public int getTotalRetriesCompleted() { return totalRetriesCompleted; }
+        // Failed attempts that scheduled another one
+        public int getTotalRetriesScheduled() { return totalRetriesScheduled; }
+        public int getTotalDeadLettered() { return totalDeadLettered; }
         public double getAvgProcessingTimeMs() { return avgProcessingTimeMs; }
         public int getCreationRate() { return creationRate; }
         public int getProcessingRate() { return processingRate; }
+        public int getFirstAttemptRate() { return firstAttemptRate; }
+        public int getRetryRate() { return retryRate; }
+        public RateTracker.RateSummary getCreationRates() { return creationRates; }
+        public RateTracker.RateSummary getProcessingRates() { return processingRates; }
+        public RateTracker.RateSummary getFirstAttemptRates() { return firstAttemptRates; }
+        public RateTracker.RateSummary getRetryRates() { return retryRates; }
+        public LatencyHistogram.LatencySummary getProcessingTime() { return processingTime; }
+        public LatencyHistogram.LatencySummary getCreationLatency() { return creationLatency; }
+        public LatencyHistogram.LatencySummary getQueueWait() { return queueWait; }
+        public Map<Task.TaskPriority, LatencyHistogram.LatencySummary> getQueueWaitByPriority() { return queueWaitByPriority; }
+        public TaskCache.CacheStatistics getCache() { return cache; }
         public LocalDateTime getTimestamp() { return timestamp; }
     }
 }
@@ -0,0 +1,6 @@
+-- Runs before Hibernate's ddl-auto=update, which adds tables and columns but never
+-- changes an existing column. Statements must be safe to repeat on every startup.
+
+-- Databases created before tasks.status was declared varchar have a native ENUM
+-- column that rejects statuses added since (DEAD_LETTER)
+ALTER TABLE IF EXISTS tasks ALTER COLUMN status SET DATA TYPE VARCHAR(32);
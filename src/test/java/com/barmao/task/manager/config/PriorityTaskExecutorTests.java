@@ -0,0 +1,64 @@
+package com.barmao.task.manager.config;
+
+import com.barmao.task.manager.model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PriorityTaskExecutorTests {
+
+    private final PriorityTaskExecutor executor = new PriorityTaskExecutor(60_000);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void decoratedTasksKeepTheirPriorityOrder() throws Exception {
+        List<String> events = new CopyOnWriteArrayList<>();
+        executor.setTaskDecorator(runnable -> () -> {
+            events.add("decorated");
+            runnable.run();
+        });
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(10);
+        executor.initialize();
+
+        // Hold the only thread so the next tasks queue up
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(3);
+        executor.execute(() -> {
+            await(release);
+            done.countDown();
+        });
+        executor.execute(() -> {
+            events.add("low");
+            done.countDown();
+        }, Task.TaskPriority.LOW);
+        executor.execute(() -> {
+            events.add("high");
+            done.countDown();
+        }, Task.TaskPriority.HIGH);
+
+        release.countDown();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(List.of("decorated", "decorated", "high", "decorated", "low"), events);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.barmao.task.manager.event;
+
+import com.barmao.task.manager.model.OutboxRelayLease;
+import com.barmao.task.manager.repository.OutboxRelayLeaseRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The lease that lets one node relay the outbox. Owners stand in for nodes.
+ */
+@SpringBootTest(properties = {
+        "task.manager.events.jms-delivery=DIRECT",
+        "spring.datasource.url=jdbc:h2:mem:relaylease;DB_CLOSE_DELAY=-1",
+        "spring.activemq.broker-url=vm://relaylease?broker.persistent=false&broker.useJmx=false"
+})
+class OutboxRelayLeaseTests {
+
+    private static final String LEASE = "test-relay";
+
+    @Autowired
+    private OutboxRelayLeaseRepository leaseRepository;
+
+    @Test
+    void onlyTheHolderRenewsUntilTheLeaseExpires() {
+        LocalDateTime now = LocalDateTime.now();
+        leaseRepository.saveAndFlush(new OutboxRelayLease(LEASE, "node-a", now.plusSeconds(10)));
+
+        assertEquals(0, leaseRepository.acquire(LEASE, "node-b", now, now.plusSeconds(10)));
+        assertEquals(1, leaseRepository.acquire(LEASE, "node-a", now, now.plusSeconds(10)));
+
+        LocalDateTime later = now.plusSeconds(11);
+        assertEquals(1, leaseRepository.acquire(LEASE, "node-b", later, later.plusSeconds(10)));
+        assertEquals(0, leaseRepository.acquire(LEASE, "node-a", later, later.plusSeconds(10)));
+        assertEquals("node-b", leaseRepository.findById(LEASE).orElseThrow().getOwner());
+    }
+}
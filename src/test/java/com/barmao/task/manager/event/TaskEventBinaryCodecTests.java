@@ -0,0 +1,77 @@
+package com.barmao.task.manager.event;
+
+import com.barmao.task.manager.config.JmsConfig;
+import com.barmao.task.manager.model.Task;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaskEventBinaryCodecTests {
+
+    @Test
+    void completedEventKeepsAttemptNumber() {
+        TaskEvents.TaskCompletedEvent decoded =
+                (TaskEvents.TaskCompletedEvent) TaskEventBinaryCodec.decode(TaskEventBinaryCodec.encode(completedEvent(5)));
+
+        assertEquals(5, decoded.getAttemptNumber());
+        assertEquals(Task.TaskStatus.FAILED.name(), decoded.getStatus());
+    }
+
+    @Test
+    void version1CompletedEventDecodesAsFirstAttempt() {
+        TaskEvents.TaskCompletedEvent original = completedEvent(5);
+        byte[] encoded = TaskEventBinaryCodec.encode(original);
+
+        // A version 1 payload is the same layout without the trailing attemptNumber varint (one byte here)
+        byte[] version1 = Arrays.copyOf(encoded, encoded.length - 1);
+        version1[0] = 1;
+        TaskEvents.TaskCompletedEvent decoded = (TaskEvents.TaskCompletedEvent) TaskEventBinaryCodec.decode(version1);
+
+        assertEquals(1, decoded.getAttemptNumber());
+        assertEquals(original.getTaskId(), decoded.getTaskId());
+        assertEquals(original.getProcessingTimeMs(), decoded.getProcessingTimeMs());
+        assertFalse(decoded.isSuccessful());
+    }
+
+    // Encode/decode speed is measured by EventCodecBenchmark under src/jmh
+    @Test
+    void binaryEventsRoundTripInLessThanHalfTheJsonBytes() throws Exception {
+        ObjectMapper objectMapper = JmsConfig.createEventObjectMapper();
+        Task task = new Task("Task-42", "Generated task number 42 for the codec benchmark");
+        task.setStatus(Task.TaskStatus.PROCESSING);
+        task.incrementAttempts();
+        List<TaskEvents.TaskEvent> events = List.of(
+                new TaskEvents.TaskCreatedEvent(task, 850),
+                new TaskEvents.TaskProcessingStartedEvent(task),
+                completedEvent(2));
+
+        for (TaskEvents.TaskEvent event : events) {
+            // The binary format keeps millisecond precision
+            event.setTimestamp(LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS));
+            byte[] binary = TaskEventBinaryCodec.encode(event);
+            byte[] json = objectMapper.writeValueAsBytes(event);
+
+            TaskEvents.TaskEvent decoded = TaskEventBinaryCodec.decode(binary);
+            assertEquals(objectMapper.writeValueAsString(event), objectMapper.writeValueAsString(decoded));
+            assertTrue(2 * binary.length < json.length,
+                    event.getClass().getSimpleName() + ": " + binary.length + " binary vs " + json.length + " JSON bytes");
+        }
+    }
+
+    private static TaskEvents.TaskCompletedEvent completedEvent(int attempts) {
+        Task task = new Task("Codec task", "Retried");
+        task.setStatus(Task.TaskStatus.FAILED);
+        for (int i = 0; i < attempts; i++) {
+            task.incrementAttempts();
+        }
+        return new TaskEvents.TaskCompletedEvent(task, 4200);
+    }
+}
@@ -0,0 +1,95 @@
+package com.barmao.task.manager.service;
+
+import com.barmao.task.manager.model.Task;
+import com.barmao.task.manager.repository.TaskRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Rebuilds the timers from stored pending tasks, as on a restart, and starts
+ * the due ones through a handler the test completes by hand.
+ */
+@SpringBootTest(properties = {
+        "task.manager.scheduler.tick-ms=10",
+        "task.manager.scheduler.max-in-flight=2",
+        "spring.datasource.url=jdbc:h2:mem:scheduler;DB_CLOSE_DELAY=-1",
+        "spring.activemq.broker-url=vm://scheduler?broker.persistent=false&broker.useJmx=false"
+})
+class DelayedTaskSchedulerTests {
+
+    private static final int OVERDUE = 5;
+
+    @Autowired
+    private DelayedTaskScheduler scheduler;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Test
+    void rebuildStartsOverdueTasksAtMostMaxInFlightAtATime() throws Exception {
+        List<Task> tasks = new ArrayList<>();
+        Set<String> overdue = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < OVERDUE; i++) {
+            Task task = scheduledTask("overdue-" + i, LocalDateTime.now().minusMinutes(1));
+            tasks.add(task);
+            overdue.add(task.getId());
+        }
+        tasks.add(scheduledTask("later", LocalDateTime.now().plusHours(1)));
+        taskRepository.saveAll(tasks);
+
+        // Started tasks stay in flight until the test completes their future
+        Map<String, CompletableFuture<Task>> started = new ConcurrentHashMap<>();
+        Set<String> startingThreads = ConcurrentHashMap.newKeySet();
+        scheduler.setDueTaskHandler(id -> {
+            startingThreads.add(Thread.currentThread().getName());
+            return started.computeIfAbsent(id, key -> new CompletableFuture<>());
+        });
+        int scheduledBefore = scheduler.getScheduledCount();
+
+        scheduler.rebuild();
+
+        List<String> completed = new ArrayList<>();
+        while (completed.size() < OVERDUE) {
+            await(() -> started.size() == Math.min(OVERDUE, completed.size() + 2));
+            // Nothing beyond max-in-flight starts while the running ones are held
+            Thread.sleep(50);
+            assertEquals(Math.min(OVERDUE, completed.size() + 2), started.size());
+
+            String next = started.keySet().stream().filter(id -> !completed.contains(id)).findFirst().orElseThrow();
+            completed.add(next);
+            started.get(next).complete(null);
+        }
+
+        assertEquals(overdue, started.keySet());
+        assertEquals(Set.of("TaskScheduler-dispatch"), startingThreads, "Tasks are never started on the wheel's ticker");
+        assertEquals(scheduledBefore + 1, scheduler.getScheduledCount(), "The future task keeps its timer");
+    }
+
+    private static Task scheduledTask(String name, LocalDateTime notBefore) {
+        Task task = new Task(name, "Scheduler test task");
+        task.setStatus(Task.TaskStatus.PENDING);
+        task.setNotBefore(notBefore);
+        return task;
+    }
+
+    private static void await(Supplier<Boolean> condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.get() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.get(), "Timed out waiting for the scheduler");
+    }
+}
@@ -0,0 +1,120 @@
+package com.barmao.task.manager.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives the wheel by hand through advanceTo; the ticker thread is never started.
+ * Four slots per level and three levels keep the spans small: level 0 covers
+ * 4 ticks, level 1 16 and level 2 64, so short deadlines already cascade.
+ */
+class HierarchicalTimingWheelTests {
+
+    private static final long START = 1_000_000L;
+    private static final long TICK = 10;
+    private static final long LEVEL_1_SPAN = 4 * TICK;
+    private static final long LEVEL_2_SPAN = 16 * TICK;
+    private static final long TOP_SPAN = 64 * TICK;
+
+    private final HierarchicalTimingWheel<Long> wheel =
+            new HierarchicalTimingWheel<>("TestWheel", TICK, 2, 3, deadline -> { }, START);
+
+    @Test
+    void timersFireOnTheFirstTickAtOrAfterTheirDeadline() {
+        Random random = new Random(42);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            // Up to twice the top level's span, so some timers wrap the whole wheel
+            long deadline = START + 1 + random.nextInt((int) (2 * TOP_SPAN));
+            deadlines.add(deadline);
+            wheel.schedule(deadline, deadline);
+        }
+
+        int fired = 0;
+        for (long now = START + TICK; now <= START + 2 * TOP_SPAN + TICK; now += TICK) {
+            for (long deadline : wheel.advanceTo(now)) {
+                assertTrue(deadline <= now, "Fired early: deadline " + deadline + " at " + now);
+                assertTrue(deadline > now - TICK, "Fired late: deadline " + deadline + " at " + now);
+                fired++;
+            }
+            assertEquals(deadlines.size() - fired, wheel.size());
+        }
+        assertEquals(deadlines.size(), fired);
+    }
+
+    @Test
+    void timersCascadeDownFromLevelsOneAndTwo() {
+        long inLevel1 = START + LEVEL_1_SPAN + 3 * TICK;
+        long inLevel2 = START + LEVEL_2_SPAN + 5 * TICK;
+        wheel.schedule(inLevel1, inLevel1);
+        wheel.schedule(inLevel2, inLevel2);
+
+        assertEquals(List.of(), wheel.advanceTo(inLevel1 - 1));
+        assertEquals(List.of(inLevel1), wheel.advanceTo(inLevel1));
+        assertEquals(List.of(), wheel.advanceTo(inLevel2 - 1));
+        assertEquals(List.of(inLevel2), wheel.advanceTo(inLevel2));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void jumpingAheadExpiresTimersInDeadlineOrder() {
+        long[] deadlines = {START + TOP_SPAN - TICK, START + TICK, START + LEVEL_2_SPAN, START + 5 * TICK};
+        for (long deadline : deadlines) {
+            wheel.schedule(deadline, deadline);
+        }
+
+        assertEquals(List.of(START + TICK, START + 5 * TICK, START + LEVEL_2_SPAN, START + TOP_SPAN - TICK),
+                wheel.advanceTo(START + TOP_SPAN));
+    }
+
+    @Test
+    void pastDeadlineFiresOnTheNextTick() {
+        wheel.advanceTo(START + 10 * TICK);
+        wheel.schedule(START, START);
+
+        assertEquals(List.of(START), wheel.advanceTo(START + 11 * TICK));
+    }
+
+    @Test
+    void cancelledTimerNeverFires() {
+        long deadline = START + LEVEL_2_SPAN + TICK;
+        HierarchicalTimingWheel.Timeout<Long> cancelled = wheel.schedule(deadline, deadline);
+        HierarchicalTimingWheel.Timeout<Long> kept = wheel.schedule(deadline + 1, deadline);
+        assertEquals(2, wheel.size());
+
+        // Cancel after the timer has cascaded down from level 2
+        assertEquals(List.of(), wheel.advanceTo(START + LEVEL_2_SPAN));
+        assertTrue(cancelled.cancel());
+        assertFalse(cancelled.cancel());
+        assertFalse(cancelled.isPending());
+        assertEquals(1, wheel.size());
+
+        assertEquals(List.of(deadline + 1), wheel.advanceTo(deadline));
+        assertFalse(kept.isPending());
+        assertFalse(kept.cancel(), "An expired timer cannot be cancelled");
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void rescheduledTimerFiresOnlyAtItsNewDeadline() {
+        long first = START + 3 * LEVEL_1_SPAN;
+        long second = START + LEVEL_2_SPAN + 2 * TICK;
+        HierarchicalTimingWheel.Timeout<Long> timeout = wheel.schedule(second, first);
+
+        // Reschedule as DelayedTaskScheduler does: a new timer, then cancel the old one
+        wheel.schedule(second, second);
+        timeout.cancel();
+        assertEquals(1, wheel.size());
+
+        assertEquals(List.of(), wheel.advanceTo(first));
+        assertEquals(List.of(second), wheel.advanceTo(second));
+        assertEquals(0, wheel.size());
+    }
+}
@@ -0,0 +1,92 @@
+package com.barmao.task.manager.service;
+
+import com.barmao.task.manager.event.TaskEvents;
+import com.barmao.task.manager.model.Task;
+import com.barmao.task.manager.repository.TaskRepository;
+import com.barmao.task.manager.service.loadtest.TaskMetricsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bulkcancel;DB_CLOSE_DELAY=-1",
+        "spring.activemq.broker-url=vm://bulkcancel?broker.persistent=false&broker.useJmx=false"
+})
+class TaskBulkCancelTests {
+
+    private static final int TASKS = 3;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private DelayedTaskScheduler scheduler;
+
+    @Autowired
+    private CompletionEvents completionEvents;
+
+    @Autowired
+    private TaskMetricsService metricsService;
+
+    @Test
+    void bulkCancelCompletesScheduledTasks() throws Exception {
+        LocalDateTime later = LocalDateTime.now().plusHours(1);
+        List<Task> cancelled = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            cancelled.add(taskService.createTaskAsync("bulk-" + i, "Bulk cancel test task",
+                    Task.TaskPriority.NORMAL, later).get(30, TimeUnit.SECONDS));
+        }
+        Task kept = taskService.createTaskAsync("kept", "Not matched by the prefix",
+                Task.TaskPriority.NORMAL, later).get(30, TimeUnit.SECONDS);
+        int scheduledBefore = scheduler.getScheduledCount();
+        int processedBefore = metricsService.getTotalTasksProcessed();
+
+        TaskService.BulkCancelResult result = taskService.cancelTasks(null, "bulk-");
+
+        assertEquals(TASKS, result.getQueuedCancelled());
+        for (Task task : cancelled) {
+            Task stored = taskRepository.findById(task.getId()).orElseThrow();
+            assertEquals(Task.TaskStatus.FAILED, stored.getStatus());
+            assertNotNull(stored.getCompletedAt());
+            // Whoever waits on the task's result hears that it finished
+            assertEquals(Task.TaskStatus.FAILED.name(), completionEvents.statuses.get(task.getId()));
+        }
+        assertEquals(scheduledBefore - TASKS, scheduler.getScheduledCount(), "Timers of cancelled tasks are dropped");
+        assertEquals(Task.TaskStatus.PENDING, taskRepository.findById(kept.getId()).orElseThrow().getStatus());
+        assertEquals(processedBefore, metricsService.getTotalTasksProcessed(), "No attempt of a queued task was processed");
+    }
+
+    @TestConfiguration
+    static class CompletionEventsConfig {
+        @Bean
+        CompletionEvents completionEvents() {
+            return new CompletionEvents();
+        }
+    }
+
+    // Records the status of every completion event by task ID
+    static class CompletionEvents {
+        private final Map<String, String> statuses = new ConcurrentHashMap<>();
+
+        @EventListener
+        public void onCompleted(TaskEvents.TaskCompletedEvent event) {
+            statuses.put(event.getTaskId(), event.getStatus());
+        }
+    }
+}
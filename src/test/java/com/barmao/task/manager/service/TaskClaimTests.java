@@ -0,0 +1,98 @@
+package com.barmao.task.manager.service;
+
+import com.barmao.task.manager.exception.ConcurrencyException;
+import com.barmao.task.manager.model.Task;
+import com.barmao.task.manager.repository.TaskRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The conditional claim UPDATE and the version check on later saves, which
+ * together keep concurrent workers from running or overwriting the same task.
+ */
+@SpringBootTest(properties = {
+        "task.manager.simulation.failure-rate=0",
+        "task.manager.simulation.step-delay-min-ms=10",
+        "task.manager.simulation.step-delay-max-ms=20",
+        "spring.datasource.url=jdbc:h2:mem:claim;DB_CLOSE_DELAY=-1",
+        "spring.activemq.broker-url=vm://claim?broker.persistent=false&broker.useJmx=false"
+})
+class TaskClaimTests {
+
+    private static final int CLAIMERS = 8;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Test
+    void exactlyOneConcurrentClaimWins() throws Exception {
+        Task task = taskRepository.save(pendingTask("contended"));
+
+        ExecutorService claimers = Executors.newFixedThreadPool(CLAIMERS);
+        try {
+            // Release all claimers at once
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < CLAIMERS; i++) {
+                results.add(claimers.submit(() -> {
+                    start.await();
+                    return taskRepository.claim(task.getId(), Task.TaskStatus.PENDING,
+                            Task.TaskStatus.PROCESSING, LocalDateTime.now());
+                }));
+            }
+            start.countDown();
+
+            int won = 0;
+            for (Future<Integer> result : results) {
+                won += result.get(30, TimeUnit.SECONDS);
+            }
+            assertEquals(1, won);
+        } finally {
+            claimers.shutdownNow();
+        }
+
+        Task stored = taskRepository.findById(task.getId()).orElseThrow();
+        assertEquals(Task.TaskStatus.PROCESSING, stored.getStatus());
+        assertEquals(1, stored.getAttempts(), "Only the winning claim counts an attempt");
+    }
+
+    @Test
+    void saveOfAStaleTaskFailsWithoutOverwritingTheNewerChange() {
+        Task task = taskRepository.save(pendingTask("stale"));
+        taskRepository.claim(task.getId(), Task.TaskStatus.PENDING, Task.TaskStatus.PROCESSING, LocalDateTime.now());
+        Task claimed = taskRepository.findById(task.getId()).orElseThrow();
+
+        // Another writer changes the task after this worker read it
+        Task newer = taskRepository.findById(task.getId()).orElseThrow();
+        newer.setDescription("Changed by another writer");
+        taskRepository.save(newer);
+
+        assertThrows(ConcurrencyException.class, () -> taskService.executeClaimedTask(claimed));
+
+        Task stored = taskRepository.findById(task.getId()).orElseThrow();
+        assertEquals("Changed by another writer", stored.getDescription());
+        assertEquals(Task.TaskStatus.PROCESSING, stored.getStatus());
+    }
+
+    private static Task pendingTask(String name) {
+        Task task = new Task(name, "Claim test task");
+        task.setStatus(Task.TaskStatus.PENDING);
+        return task;
+    }
+}
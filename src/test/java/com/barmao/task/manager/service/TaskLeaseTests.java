@@ -0,0 +1,71 @@
+package com.barmao.task.manager.service;
+
+import com.barmao.task.manager.exception.ConcurrencyException;
+import com.barmao.task.manager.model.Task;
+import com.barmao.task.manager.repository.TaskRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Taking over a task left in PROCESSING, as a redelivered work-queue message does.
+ * The task rows stand in for a worker on another node.
+ */
+@SpringBootTest(properties = {
+        "task.manager.simulation.failure-rate=0",
+        "task.manager.simulation.step-delay-min-ms=10",
+        "task.manager.simulation.step-delay-max-ms=20",
+        "task.manager.work-queue.lease-timeout-ms=15000",
+        "spring.datasource.url=jdbc:h2:mem:lease;DB_CLOSE_DELAY=-1",
+        "spring.activemq.broker-url=vm://lease?broker.persistent=false&broker.useJmx=false"
+})
+class TaskLeaseTests {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Test
+    void taskWithALiveLeaseIsNotTakenOver() {
+        Task task = taskRepository.save(runningElsewhere("leased", LocalDateTime.now()));
+
+        assertThrows(IllegalStateException.class, () -> taskService.executeTask(task.getId(), true));
+
+        Task stored = taskRepository.findById(task.getId()).orElseThrow();
+        assertEquals(Task.TaskStatus.PROCESSING, stored.getStatus());
+        assertEquals(1, stored.getAttempts());
+    }
+
+    @Test
+    void taskWithAnExpiredLeaseIsTakenOver() {
+        Task task = taskRepository.save(runningElsewhere("abandoned", LocalDateTime.now().minusMinutes(1)));
+
+        Task result = taskService.executeTask(task.getId(), true);
+
+        assertEquals(Task.TaskStatus.COMPLETED, result.getStatus());
+        assertEquals(2, taskRepository.findById(task.getId()).orElseThrow().getAttempts());
+    }
+
+    @Test
+    void processingTaskIsOnlyTakenOverFromARedeliveredMessage() {
+        Task task = taskRepository.save(runningElsewhere("first-delivery", LocalDateTime.now().minusMinutes(1)));
+
+        assertThrows(ConcurrencyException.class, () -> taskService.executeTask(task.getId(), false));
+        assertEquals(1, taskRepository.findById(task.getId()).orElseThrow().getAttempts());
+    }
+
+    private static Task runningElsewhere(String name, LocalDateTime heartbeatAt) {
+        Task task = new Task(name, "Claimed by another node");
+        task.setStatus(Task.TaskStatus.PROCESSING);
+        task.incrementAttempts();
+        task.setHeartbeatAt(heartbeatAt);
+        return task;
+    }
+}
@@ -0,0 +1,134 @@
+package com.barmao.task.manager.service;
+
+import com.barmao.task.manager.model.Task;
+import com.barmao.task.manager.repository.TaskRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Automatic retry against a database created before DEAD_LETTER existed: the
+ * tasks table starts with the native ENUM status column of the shipped
+ * taskdb file, which schema.sql must migrate at startup.
+ */
+@SpringBootTest(properties = {
+        "task.manager.simulation.failure-rate=1.0",
+        "task.manager.simulation.step-delay-min-ms=10",
+        "task.manager.simulation.step-delay-max-ms=20",
+        "task.manager.retry.max-attempts=3",
+        "task.manager.retry.base-delay-ms=" + TaskRetryTests.BASE_DELAY_MS,
+        "task.manager.retry.max-delay-ms=" + TaskRetryTests.MAX_DELAY_MS,
+        "task.manager.scheduler.tick-ms=10",
+        "spring.activemq.broker-url=vm://retry?broker.persistent=false&broker.useJmx=false"
+})
+class TaskRetryTests {
+
+    static final long BASE_DELAY_MS = 50;
+    static final long MAX_DELAY_MS = 200;
+    private static final String DATABASE_URL = "jdbc:h2:mem:retry;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @DynamicPropertySource
+    static void legacySchema(DynamicPropertyRegistry registry) throws SQLException {
+        // The tasks table as the shipped taskdb.mv.db has it
+        try (Connection connection = DriverManager.getConnection(DATABASE_URL, "sa", "password");
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS tasks (" +
+                    "id VARCHAR(255) NOT NULL PRIMARY KEY, attempts INTEGER NOT NULL, " +
+                    "completed_at TIMESTAMP(6), created_at TIMESTAMP(6), description VARCHAR(255), " +
+                    "name VARCHAR(255), progress FLOAT(53) NOT NULL, " +
+                    "status ENUM('COMPLETED', 'CREATED', 'FAILED', 'PENDING', 'PROCESSING'))");
+        }
+        registry.add("spring.datasource.url", () -> DATABASE_URL);
+    }
+
+    @Test
+    void failedAttemptIsRescheduledWithinTheJitterBound() throws Exception {
+        Task task = taskService.createTaskAsync("retry-backoff", "Fails every attempt").get(30, TimeUnit.SECONDS);
+
+        LocalDateTime before = LocalDateTime.now();
+        Task result = taskService.processTaskAsync(task.getId()).get(30, TimeUnit.SECONDS);
+        LocalDateTime after = LocalDateTime.now();
+
+        // First retry: delay drawn from [0, base-delay]
+        assertEquals(Task.TaskStatus.PENDING, result.getStatus());
+        assertEquals(1, result.getAttempts());
+        assertFalse(result.getNotBefore().isBefore(before), "Retry scheduled in the past: " + result.getNotBefore());
+        assertFalse(result.getNotBefore().isAfter(after.plusNanos(BASE_DELAY_MS * 1_000_000)),
+                "Retry scheduled beyond the backoff window: " + result.getNotBefore());
+
+        // Let the remaining attempts finish so they do not overlap other tests
+        awaitStatus(task.getId(), Task.TaskStatus.DEAD_LETTER);
+    }
+
+    @Test
+    void cancelledTaskIsNotRetried() throws Exception {
+        Task task = taskService.createTaskAsync("retry-cancelled", "Cancelled while running").get(30, TimeUnit.SECONDS);
+
+        CompletableFuture<Task> result = taskService.processTaskAsync(task.getId());
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!taskService.cancelTask(task.getId())) {
+            assertTrue(System.currentTimeMillis() < deadline, "Task never started running");
+            Thread.sleep(1);
+        }
+
+        assertEquals(Task.TaskStatus.FAILED, result.get(30, TimeUnit.SECONDS).getStatus());
+        // Longer than any backoff delay: a retry would have been scheduled and started by now
+        Thread.sleep(MAX_DELAY_MS * 3);
+        Task stored = taskRepository.findById(task.getId()).orElseThrow();
+        assertEquals(Task.TaskStatus.FAILED, stored.getStatus());
+        assertEquals(1, stored.getAttempts());
+        assertNull(stored.getNotBefore());
+    }
+
+    @Test
+    void taskIsDeadLetteredAfterMaxAttempts() throws Exception {
+        long deadLettered = taskService.getTaskStatistics().getDeadLetterTasks();
+        Task task = taskService.createTaskAsync("retry-dead-letter", "Fails every attempt").get(30, TimeUnit.SECONDS);
+
+        taskService.processTaskAsync(task.getId()).get(30, TimeUnit.SECONDS);
+
+        // The scheduler runs attempts 2 and 3; the last one is dead-lettered
+        Task stored = awaitStatus(task.getId(), Task.TaskStatus.DEAD_LETTER);
+        assertEquals(3, stored.getAttempts());
+        // The counters move right after the commit the repository already sees
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (taskService.getTaskStatistics().getDeadLetterTasks() == deadLettered
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(deadLettered + 1, taskService.getTaskStatistics().getDeadLetterTasks());
+        assertEquals(0, taskService.getTaskStatistics().getProcessingTasks());
+    }
+
+    private Task awaitStatus(String id, Task.TaskStatus status) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        Task task = taskRepository.findById(id).orElseThrow();
+        while (task.getStatus() != status && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            task = taskRepository.findById(id).orElseThrow();
+        }
+        assertEquals(status, task.getStatus());
+        return task;
+    }
+}
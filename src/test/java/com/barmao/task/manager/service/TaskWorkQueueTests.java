@@ -0,0 +1,92 @@
+package com.barmao.task.manager.service;
+
+import com.barmao.task.manager.event.TaskEvents;
+import com.barmao.task.manager.model.Task;
+import com.barmao.task.manager.repository.TaskRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the QUEUE execution mode against the embedded vm:// broker with
+ * several in-process competing workers.
+ */
+@SpringBootTest(properties = {
+        "task.manager.execution.mode=QUEUE",
+        "task.manager.work-queue.workers=3",
+        // Failed tasks stay FAILED so every task is final when the drain ends
+        "task.manager.retry.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:workqueue;DB_CLOSE_DELAY=-1",
+        "spring.activemq.broker-url=vm://workqueue?broker.persistent=false&broker.useJmx=false"
+})
+class TaskWorkQueueTests {
+
+    private static final int TASKS = 6;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private WorkerThreads workerThreads;
+
+    @Test
+    void pendingTasksAreSharedBetweenCompetingWorkers() throws Exception {
+        List<TaskService.TaskSpec> specs = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            specs.add(new TaskService.TaskSpec("queued-" + i, "Work queue test task"));
+        }
+        List<Task> created = taskService.createTasksBatchAsync(specs).get(30, TimeUnit.SECONDS);
+
+        PendingTaskDrain drain = taskService.processPendingTasksAsync(TASKS);
+        PendingTaskDrain.Progress progress = drain.whenFinished().get(120, TimeUnit.SECONDS).getProgress();
+
+        // Results come back through the completion events
+        assertEquals(PendingTaskDrain.State.COMPLETED, progress.getState());
+        assertEquals(TASKS, progress.getSubmitted());
+        assertEquals(TASKS, progress.getCompleted() + progress.getFailed());
+        for (Task task : created) {
+            Task.TaskStatus status = taskRepository.findById(task.getId()).orElseThrow().getStatus();
+            assertTrue(status == Task.TaskStatus.COMPLETED || status == Task.TaskStatus.FAILED,
+                    "Unexpected status " + status);
+        }
+
+        // Each task was delivered to exactly one worker
+        for (Task task : created) {
+            assertEquals(1, taskRepository.findById(task.getId()).orElseThrow().getAttempts());
+        }
+        assertTrue(workerThreads.names.size() > 1, "Expected several workers, got " + workerThreads.names);
+    }
+
+    @TestConfiguration
+    static class WorkerThreadsConfig {
+        @Bean
+        WorkerThreads workerThreads() {
+            return new WorkerThreads();
+        }
+    }
+
+    // Records which threads started processing
+    static class WorkerThreads {
+        private final Set<String> names = ConcurrentHashMap.newKeySet();
+
+        @EventListener
+        public void onStarted(TaskEvents.TaskProcessingStartedEvent event) {
+            names.add(Thread.currentThread().getName());
+        }
+    }
+}